@@ -0,0 +1,322 @@
+package practice;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * MonotonePriorityMatrix is the monotone mode of PriorityMatrix for workloads such as Dijkstra or A*,
+ * where priorities are long costs and the extracted priority never decreases.
+ * Instead of a TreeMap row per distinct priority it is backed by a radix heap,
+ * giving amortized O(log C) insert and extractMin, where C is the range of priorities.
+ *
+ * <p>
+ * Elements are kept in 65 buckets. Bucket 0 holds the elements whose priority equals the last
+ * extracted priority, ordered by the Comparator exactly like a PriorityMatrix row. Bucket i > 0
+ * holds the elements whose priority first differs from the last extracted priority at bit i - 1.
+ * When bucket 0 runs empty, the first non-empty bucket is redistributed into lower buckets, and each
+ * element moves down at most 64 times over its lifetime.
+ *
+ * <p>
+ * Because the minimum may only move forward, inserting an element with a priority below the last
+ * priority returned by extractMin() is rejected. getMin() only looks for the minimum and does not
+ * move the last extracted priority forward. There is no getMax() in this mode.
+ *
+ * @param <T> the type of elements stored in the MonotonePriorityMatrix
+ */
+public class MonotonePriorityMatrix<T> implements Iterable<T> {
+    private static final int BUCKET_COUNT = 65;
+
+    private final RowHeap<T> minRow;
+    private final List<List<Slot<T>>> buckets;
+    private final Map<T, Slot<T>> elementToSlotMap;
+    private long lastPriority;
+    // The minimum found by getMin() while bucket 0 is empty, or null if it must be searched for again.
+    private Slot<T> peekedMin;
+
+    /**
+     * Constructs a new MonotonePriorityMatrix with the specified comparator to order elements within the same priority.
+     *
+     * @param comparator the comparator that will be used to order elements within the same priority
+     */
+    public MonotonePriorityMatrix(Comparator<T> comparator) {
+        this.minRow = new RowHeap<>(comparator);
+        this.buckets = new ArrayList<>(BUCKET_COUNT);
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets.add(new ArrayList<>());
+        }
+        this.elementToSlotMap = new HashMap<>();
+        this.lastPriority = Long.MIN_VALUE;
+    }
+
+    /**
+     * Inserts the specified element with the specified priority into the MonotonePriorityMatrix.
+     *
+     * @param element  the element to be inserted
+     * @param priority the priority associated with the element
+     * @throws IllegalArgumentException if the element already exists in the MonotonePriorityMatrix,
+     *                                  or if the priority is below the last extracted priority
+     */
+    public void insert(T element, long priority) {
+        if (elementToSlotMap.containsKey(element)) {
+            throw new IllegalArgumentException("Element already exists in the Priority Matrix");
+        }
+        if (priority < lastPriority) {
+            throw new IllegalArgumentException("Priority " + priority + " is below the last extracted priority " + lastPriority);
+        }
+
+        Slot<T> slot = new Slot<>(element, priority);
+        place(slot);
+        elementToSlotMap.put(element, slot);
+        peekedMin = null;
+    }
+
+    /**
+     * Updates the priority of the specified element in the MonotonePriorityMatrix.
+     *
+     * @param element     The element to update
+     * @param newPriority The new priority value of the element
+     * @throws IllegalArgumentException if the new priority is below the last extracted priority
+     */
+    public void updatePriority(T element, long newPriority) {
+        if (newPriority < lastPriority) {
+            throw new IllegalArgumentException("Priority " + newPriority + " is below the last extracted priority " + lastPriority);
+        }
+
+        remove(element);
+        insert(element, newPriority);
+    }
+
+    /**
+     * Returns the priority of the specified element.
+     *
+     * @param element the element to look up
+     * @return the priority of the element, or null if the element is not in the MonotonePriorityMatrix
+     */
+    public Long getPriority(T element) {
+        Slot<T> slot = elementToSlotMap.get(element);
+        return slot == null ? null : slot.priority;
+    }
+
+    /**
+     * Checks if the MonotonePriorityMatrix has any elements.
+     *
+     * @return true if the MonotonePriorityMatrix is empty, false otherwise
+     */
+    public boolean isEmpty() {
+        return elementToSlotMap.isEmpty();
+    }
+
+    /**
+     * Returns the number of elements in the MonotonePriorityMatrix.
+     *
+     * @return The total number of elements in the MonotonePriorityMatrix
+     */
+    public int size() {
+        return elementToSlotMap.size();
+    }
+
+    /**
+     * Removes the specified element from the MonotonePriorityMatrix.
+     *
+     * @param element the element to be removed
+     * @return true if the element was removed, false if the element was not found
+     */
+    public boolean remove(T element) {
+        Slot<T> slot = elementToSlotMap.remove(element);
+        if (slot == null) {
+            return false;
+        }
+        peekedMin = null;
+
+        if (slot.bucket == 0) {
+            return minRow.remove(element);
+        }
+
+        List<Slot<T>> bucket = buckets.get(slot.bucket);
+        Slot<T> last = bucket.remove(bucket.size() - 1);
+        if (last != slot) {
+            bucket.set(slot.index, last);
+            last.index = slot.index;
+        }
+        return true;
+    }
+
+    /**
+     * Retrieves the element with the minimum priority, but does not remove it from the MonotonePriorityMatrix.
+     * When no element has the last extracted priority, the first non-empty bucket is searched without
+     * redistributing it, and the result is kept until the next change.
+     *
+     * @return the element with the minimum priority, or null if the MonotonePriorityMatrix is empty
+     */
+    public T getMin() {
+        if (elementToSlotMap.isEmpty()) {
+            return null;
+        }
+
+        if (!minRow.isEmpty()) {
+            return minRow.peek();
+        }
+        if (peekedMin == null) {
+            Comparator<? super T> comparator = minRow.comparator();
+            for (Slot<T> slot : buckets.get(firstNonEmptyBucket())) {
+                if (peekedMin == null || slot.priority < peekedMin.priority
+                        || (slot.priority == peekedMin.priority && comparator.compare(slot.element, peekedMin.element) < 0)) {
+                    peekedMin = slot;
+                }
+            }
+        }
+        return peekedMin.element;
+    }
+
+    /**
+     * Retrieves and removes the element with the minimum priority from the MonotonePriorityMatrix.
+     *
+     * @return the element with the minimum priority, or null if the MonotonePriorityMatrix is empty
+     */
+    public T extractMin() {
+        if (elementToSlotMap.isEmpty()) {
+            return null;
+        }
+
+        if (minRow.isEmpty()) {
+            redistribute();
+        }
+        T minElement = minRow.poll();
+        elementToSlotMap.remove(minElement);
+        peekedMin = null;
+        return minElement;
+    }
+
+    /**
+     * Returns the priority of the elements in bucket 0, which is the last priority returned by extractMin().
+     *
+     * @return the last extracted priority, or Long.MIN_VALUE if nothing has been extracted yet
+     */
+    public long getLastPriority() {
+        return lastPriority;
+    }
+
+    /**
+     * Moves the first non-empty bucket into lower buckets, making its minimum priority the new last priority.
+     */
+    private void redistribute() {
+        List<Slot<T>> bucket = buckets.get(firstNonEmptyBucket());
+        long minPriority = Long.MAX_VALUE;
+        for (Slot<T> slot : bucket) {
+            minPriority = Math.min(minPriority, slot.priority);
+        }
+
+        // Every element of the bucket now differs from the last priority in a lower bit, so it moves to a lower bucket.
+        lastPriority = minPriority;
+        for (Slot<T> slot : bucket) {
+            place(slot);
+        }
+        bucket.clear();
+    }
+
+    private int firstNonEmptyBucket() {
+        int index = 1;
+        while (buckets.get(index).isEmpty()) {
+            index++;
+        }
+        return index;
+    }
+
+    private void place(Slot<T> slot) {
+        slot.bucket = bucketOf(slot.priority);
+        if (slot.bucket == 0) {
+            minRow.add(slot.element);
+            return;
+        }
+
+        List<Slot<T>> bucket = buckets.get(slot.bucket);
+        slot.index = bucket.size();
+        bucket.add(slot);
+    }
+
+    /**
+     * Returns the position of the highest bit in which the priority differs from the last priority, plus one.
+     * Both values are compared as offsets from Long.MIN_VALUE so that negative priorities keep their order.
+     */
+    private int bucketOf(long priority) {
+        long diff = (priority ^ Long.MIN_VALUE) ^ (lastPriority ^ Long.MIN_VALUE);
+        return 64 - Long.numberOfLeadingZeros(diff);
+    }
+
+    /**
+     * Returns an iterator over the elements in no particular order.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            private final Iterator<T> keyIterator = elementToSlotMap.keySet().iterator();
+
+            @Override
+            public boolean hasNext() {
+                return keyIterator.hasNext();
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new IllegalStateException("No more elements to iterate.");
+                }
+                return keyIterator.next();
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("MonotonePriorityMatrix{");
+        sb.append("\nLast priority ").append(lastPriority).append(": ");
+
+        boolean isFirst = true;
+        for (T element : minRow) {
+            if (!isFirst) {
+                sb.append(", ");
+            }
+            sb.append(element);
+            isFirst = false;
+        }
+
+        for (int i = 1; i < BUCKET_COUNT; i++) {
+            List<Slot<T>> bucket = buckets.get(i);
+            if (bucket.isEmpty()) {
+                continue;
+            }
+            sb.append("\nBucket ").append(i).append(": ");
+            isFirst = true;
+            for (Slot<T> slot : bucket) {
+                if (!isFirst) {
+                    sb.append(", ");
+                }
+                sb.append(slot.element).append('(').append(slot.priority).append(')');
+                isFirst = false;
+            }
+        }
+
+        sb.append("\n}");
+        return sb.toString();
+    }
+
+    /**
+     * An element with its priority and its current position among the buckets.
+     */
+    private static final class Slot<T> {
+        private final T element;
+        private final long priority;
+        private int bucket;
+        private int index;
+
+        private Slot(T element, long priority) {
+            this.element = element;
+            this.priority = priority;
+        }
+    }
+}
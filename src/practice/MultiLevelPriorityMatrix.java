@@ -0,0 +1,564 @@
+package practice;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * MultiLevelPriorityMatrix generalizes PriorityMatrix from two dimensions to N ordered dimensions.
+ * Each level has its own key extractor and its own index, either a sorted map or a bucket array,
+ * and the levels are nested down to a leaf heap ordered by a Comparator.
+ *
+ * <p>
+ * Example:
+ * Consider servers placed by CPU class, then rack locality, then free RAM.
+ * The first two become levels and free RAM becomes the leaf Comparator:
+ * <p>
+ * CPU 1: {rack 0: {S1(12GB), S2(8GB)}, rack 3: {S3(16GB)}}
+ * <p>
+ * CPU 2: {rack 1: {S4(10GB)}}
+ *
+ * <p>
+ * In this example, getMin() would return S1 and getMax() would return S4.
+ *
+ * <p>
+ * Every branch caches its first and last child, so getMin() and getMax() descend in O(levels)
+ * without any map lookups. Keys are read from the element when it is inserted and again when
+ * update() is called, which only touches the levels whose key changed.
+ *
+ * @param <T> the type of elements stored in the MultiLevelPriorityMatrix
+ */
+public class MultiLevelPriorityMatrix<T> implements Iterable<T> {
+
+    /**
+     * A single dimension of the MultiLevelPriorityMatrix: a key extractor and the kind of index used for it.
+     *
+     * @param <T> the type of elements the key is extracted from
+     */
+    public static final class Level<T> {
+        private final Function<? super T, ?> key;
+        private final int bucketCount;
+
+        private Level(Function<? super T, ?> key, int bucketCount) {
+            this.key = key;
+            this.bucketCount = bucketCount;
+        }
+
+        /**
+         * Creates a level whose children are kept in a sorted map, suitable for any Comparable key.
+         *
+         * @param key the function that extracts the key of this level from an element
+         * @return the new level
+         */
+        public static <T, K extends Comparable<? super K>> Level<T> sorted(Function<? super T, K> key) {
+            return new Level<>(key, 0);
+        }
+
+        /**
+         * Creates a level whose children are kept in a bucket array, suitable for small dense int keys.
+         *
+         * @param key         the function that extracts the key of this level from an element
+         * @param bucketCount the number of buckets, keys must be in the range [0, bucketCount)
+         * @return the new level
+         * @throws IllegalArgumentException if bucketCount is not positive
+         */
+        public static <T> Level<T> buckets(ToIntFunction<? super T> key, int bucketCount) {
+            if (bucketCount <= 0) {
+                throw new IllegalArgumentException("Bucket count must be positive");
+            }
+            return new Level<T>(element -> key.applyAsInt(element), bucketCount);
+        }
+
+        private Object keyOf(T element) {
+            Object value = key.apply(element);
+            if (value == null) {
+                throw new IllegalArgumentException("Level key must not be null");
+            }
+            if (bucketCount > 0) {
+                int bucket = (Integer) value;
+                if (bucket < 0 || bucket >= bucketCount) {
+                    throw new IllegalArgumentException("Bucket key " + bucket + " is outside [0, " + bucketCount + ")");
+                }
+            }
+            return value;
+        }
+
+        private Index<T> newIndex() {
+            return bucketCount > 0 ? new BucketIndex<>(bucketCount) : new SortedIndex<>();
+        }
+    }
+
+    private final List<Level<T>> levels;
+    private final Comparator<T> comparator;
+    private final Map<T, Object[]> elementToKeysMap;
+    private final Node<T> root;
+
+    /**
+     * Constructs a new MultiLevelPriorityMatrix with the specified levels and leaf comparator.
+     *
+     * @param levels     the levels, from the most significant to the least significant
+     * @param comparator the comparator that will be used to order elements that share all level keys
+     * @throws IllegalArgumentException if no levels are given
+     */
+    public MultiLevelPriorityMatrix(List<Level<T>> levels, Comparator<T> comparator) {
+        if (levels.isEmpty()) {
+            throw new IllegalArgumentException("At least one level is required");
+        }
+        this.levels = new ArrayList<>(levels);
+        this.comparator = comparator;
+        this.elementToKeysMap = new HashMap<>();
+        this.root = newNode(0, null);
+    }
+
+    /**
+     * Inserts the specified element, reading its key for every level.
+     *
+     * @param element the element to be inserted
+     * @throws IllegalArgumentException if the element already exists in the MultiLevelPriorityMatrix
+     */
+    public void insert(T element) {
+        if (elementToKeysMap.containsKey(element)) {
+            throw new IllegalArgumentException("Element already exists in the Priority Matrix");
+        }
+
+        Object[] keys = keysOf(element);
+        insertBelow(root, 0, element, keys);
+        elementToKeysMap.put(element, keys);
+    }
+
+    /**
+     * Re-reads the level keys of the specified element and moves it to its new position.
+     * Levels above the first changed key are only descended, never modified.
+     * If the element is not present, it is inserted.
+     *
+     * @param element the element to update
+     */
+    public void update(T element) {
+        Object[] oldKeys = elementToKeysMap.get(element);
+        if (oldKeys == null) {
+            insert(element);
+            return;
+        }
+
+        Object[] newKeys = keysOf(element);
+        int depth = 0;
+        Node<T> node = root;
+        while (depth < levels.size() && Objects.equals(oldKeys[depth], newKeys[depth])) {
+            node = node.children.get(oldKeys[depth]);
+            depth++;
+        }
+
+        if (depth == levels.size()) {
+            // Only the leaf order may have changed.
+            node.heap.remove(element);
+            node.heap.add(element);
+            return;
+        }
+
+        // Insert first so that the node at this depth never becomes empty and nothing above it is touched.
+        insertBelow(node, depth, element, newKeys);
+        removeBelow(node, depth, element, oldKeys);
+        elementToKeysMap.put(element, newKeys);
+    }
+
+    /**
+     * Removes the specified element from the MultiLevelPriorityMatrix.
+     *
+     * @param element the element to be removed
+     * @return true if the element was removed, false if the element was not found
+     */
+    public boolean remove(T element) {
+        Object[] keys = elementToKeysMap.remove(element);
+        if (keys == null) {
+            return false;
+        }
+
+        return removeBelow(root, 0, element, keys);
+    }
+
+    /**
+     * Checks if the MultiLevelPriorityMatrix has any elements.
+     *
+     * @return true if the MultiLevelPriorityMatrix is empty, false otherwise
+     */
+    public boolean isEmpty() {
+        return elementToKeysMap.isEmpty();
+    }
+
+    /**
+     * Returns the number of elements in the MultiLevelPriorityMatrix.
+     *
+     * @return The total number of elements in the MultiLevelPriorityMatrix
+     */
+    public int size() {
+        return elementToKeysMap.size();
+    }
+
+    /**
+     * Retrieves the element with the minimum keys, but does not remove it from the MultiLevelPriorityMatrix.
+     *
+     * @return the element with the minimum keys, or null if the MultiLevelPriorityMatrix is empty
+     */
+    public T getMin() {
+        if (isEmpty()) {
+            return null;
+        }
+
+        Node<T> node = root;
+        while (node.heap == null) {
+            node = node.children.first();
+        }
+        return node.heap.peek();
+    }
+
+    /**
+     * Retrieves and removes the element with the minimum keys from the MultiLevelPriorityMatrix.
+     *
+     * @return the element with the minimum keys, or null if the MultiLevelPriorityMatrix is empty
+     */
+    public T extractMin() {
+        return extract(true);
+    }
+
+    /**
+     * Retrieves the element with the maximum keys, but does not remove it from the MultiLevelPriorityMatrix.
+     * As in PriorityMatrix, the leaf comparator still picks the first element of the last leaf.
+     *
+     * @return the element with the maximum keys, or null if the MultiLevelPriorityMatrix is empty
+     */
+    public T getMax() {
+        if (isEmpty()) {
+            return null;
+        }
+
+        Node<T> node = root;
+        while (node.heap == null) {
+            node = node.children.last();
+        }
+        return node.heap.peek();
+    }
+
+    /**
+     * Retrieves and removes the element with the maximum keys from the MultiLevelPriorityMatrix.
+     *
+     * @return the element with the maximum keys, or null if the MultiLevelPriorityMatrix is empty
+     */
+    public T extractMax() {
+        return extract(false);
+    }
+
+    private T extract(boolean min) {
+        if (isEmpty()) {
+            return null;
+        }
+
+        Node<T> node = root;
+        while (node.heap == null) {
+            node = min ? node.children.first() : node.children.last();
+        }
+        T element = node.heap.poll();
+        prune(node);
+        elementToKeysMap.remove(element);
+        return element;
+    }
+
+    private Object[] keysOf(T element) {
+        Object[] keys = new Object[levels.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = levels.get(i).keyOf(element);
+        }
+        return keys;
+    }
+
+    private Node<T> newNode(int depth, Node<T> parent) {
+        if (depth == levels.size()) {
+            return new Node<>(parent, null, new RowHeap<>(comparator));
+        }
+        return new Node<>(parent, levels.get(depth).newIndex(), null);
+    }
+
+    private void insertBelow(Node<T> node, int depth, T element, Object[] keys) {
+        for (int i = depth; i < keys.length; i++) {
+            Node<T> child = node.children.get(keys[i]);
+            if (child == null) {
+                child = newNode(i + 1, node);
+                child.key = keys[i];
+                node.children.put(keys[i], child);
+            }
+            node = child;
+        }
+        node.heap.add(element);
+    }
+
+    private boolean removeBelow(Node<T> node, int depth, T element, Object[] keys) {
+        for (int i = depth; i < keys.length; i++) {
+            node = node.children.get(keys[i]);
+        }
+        boolean removed = node.heap.remove(element);
+        prune(node);
+        return removed;
+    }
+
+    /**
+     * Detaches empty nodes from their parents, walking up from the specified node.
+     */
+    private void prune(Node<T> node) {
+        while (node.parent != null && node.isEmpty()) {
+            node.parent.children.remove(node.key);
+            node = node.parent;
+        }
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            private final Deque<Iterator<Node<T>>> stack = new ArrayDeque<>();
+            private Iterator<T> leafIterator = null;
+
+            {
+                if (root.heap != null) {
+                    leafIterator = root.heap.iterator();
+                } else {
+                    stack.push(root.children.iterator());
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                while ((leafIterator == null || !leafIterator.hasNext()) && !stack.isEmpty()) {
+                    Iterator<Node<T>> top = stack.peek();
+                    if (!top.hasNext()) {
+                        stack.pop();
+                        continue;
+                    }
+                    Node<T> child = top.next();
+                    if (child.heap != null) {
+                        leafIterator = child.heap.iterator();
+                    } else {
+                        stack.push(child.children.iterator());
+                    }
+                }
+                return leafIterator != null && leafIterator.hasNext();
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new IllegalStateException("No more elements to iterate.");
+                }
+                return leafIterator.next();
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("MultiLevelPriorityMatrix{");
+
+        for (T element : this) {
+            sb.append("\nKeys ").append(Arrays.toString(elementToKeysMap.get(element))).append(": ").append(element);
+        }
+
+        sb.append("\n}");
+        return sb.toString();
+    }
+
+    /**
+     * A node of the level tree. Branches hold an index of children, leaves hold a heap of elements.
+     */
+    private static final class Node<T> {
+        private final Node<T> parent;
+        private final Index<T> children;
+        private final RowHeap<T> heap;
+        private Object key;
+
+        private Node(Node<T> parent, Index<T> children, RowHeap<T> heap) {
+            this.parent = parent;
+            this.children = children;
+            this.heap = heap;
+        }
+
+        private boolean isEmpty() {
+            return heap != null ? heap.isEmpty() : children.isEmpty();
+        }
+    }
+
+    /**
+     * The children of a branch keyed by the level key, with the first and last child cached.
+     */
+    private interface Index<T> extends Iterable<Node<T>> {
+        Node<T> get(Object key);
+
+        void put(Object key, Node<T> child);
+
+        void remove(Object key);
+
+        Node<T> first();
+
+        Node<T> last();
+
+        boolean isEmpty();
+    }
+
+    private static final class SortedIndex<T> implements Index<T> {
+        @SuppressWarnings("unchecked")
+        private final TreeMap<Object, Node<T>> map = new TreeMap<>((a, b) -> ((Comparable<Object>) a).compareTo(b));
+        private Node<T> first;
+        private Node<T> last;
+
+        @Override
+        public Node<T> get(Object key) {
+            return map.get(key);
+        }
+
+        @Override
+        public void put(Object key, Node<T> child) {
+            map.put(key, child);
+            if (first == null || map.comparator().compare(key, first.key) < 0) {
+                first = child;
+            }
+            if (last == null || map.comparator().compare(key, last.key) > 0) {
+                last = child;
+            }
+        }
+
+        @Override
+        public void remove(Object key) {
+            Node<T> removed = map.remove(key);
+            if (removed == first) {
+                first = map.isEmpty() ? null : map.firstEntry().getValue();
+            }
+            if (removed == last) {
+                last = map.isEmpty() ? null : map.lastEntry().getValue();
+            }
+        }
+
+        @Override
+        public Node<T> first() {
+            return first;
+        }
+
+        @Override
+        public Node<T> last() {
+            return last;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return map.isEmpty();
+        }
+
+        @Override
+        public Iterator<Node<T>> iterator() {
+            return map.values().iterator();
+        }
+    }
+
+    private static final class BucketIndex<T> implements Index<T> {
+        private final Object[] buckets;
+        private int count;
+        private int firstBucket;
+        private int lastBucket;
+
+        private BucketIndex(int bucketCount) {
+            this.buckets = new Object[bucketCount];
+            this.firstBucket = bucketCount;
+            this.lastBucket = -1;
+        }
+
+        @SuppressWarnings("unchecked")
+        private Node<T> bucket(int index) {
+            return (Node<T>) buckets[index];
+        }
+
+        @Override
+        public Node<T> get(Object key) {
+            return bucket((Integer) key);
+        }
+
+        @Override
+        public void put(Object key, Node<T> child) {
+            int index = (Integer) key;
+            if (buckets[index] == null) {
+                count++;
+            }
+            buckets[index] = child;
+            firstBucket = Math.min(firstBucket, index);
+            lastBucket = Math.max(lastBucket, index);
+        }
+
+        @Override
+        public void remove(Object key) {
+            int index = (Integer) key;
+            if (buckets[index] == null) {
+                return;
+            }
+            buckets[index] = null;
+            count--;
+            if (count == 0) {
+                firstBucket = buckets.length;
+                lastBucket = -1;
+                return;
+            }
+            if (index == firstBucket) {
+                while (buckets[firstBucket] == null) {
+                    firstBucket++;
+                }
+            }
+            if (index == lastBucket) {
+                while (buckets[lastBucket] == null) {
+                    lastBucket--;
+                }
+            }
+        }
+
+        @Override
+        public Node<T> first() {
+            return count == 0 ? null : bucket(firstBucket);
+        }
+
+        @Override
+        public Node<T> last() {
+            return count == 0 ? null : bucket(lastBucket);
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return count == 0;
+        }
+
+        @Override
+        public Iterator<Node<T>> iterator() {
+            return new Iterator<Node<T>>() {
+                private int index = firstBucket;
+
+                @Override
+                public boolean hasNext() {
+                    while (index <= lastBucket && buckets[index] == null) {
+                        index++;
+                    }
+                    return index <= lastBucket;
+                }
+
+                @Override
+                public Node<T> next() {
+                    if (!hasNext()) {
+                        throw new IllegalStateException("No more elements to iterate.");
+                    }
+                    return bucket(index++);
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,334 @@
+package practice;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * PersistentPriorityMatrix is a PriorityMatrix for many concurrent readers and few writers.
+ * The row index and the rows are persistent trees that share structure between versions,
+ * so every write creates only O(log n) new nodes and publishes the new version with an atomic pointer swap.
+ *
+ * <p>
+ * Readers call snapshot() and get an immutable, consistent view of the matrix. Reading a snapshot
+ * never takes a lock and never copies the matrix, and it is not affected by later writes.
+ * Writers are serialized with each other.
+ *
+ * <p>
+ * Rows are keyed by an insertion sequence number and every subtree caches its first element by the
+ * Comparator, so the first element of a row is found in O(1) and removing any element is O(log n).
+ * As in PriorityMatrix, an element must not change its ordering fields while it is in the matrix,
+ * except through updatePriority().
+ *
+ * @param <T> the type of elements stored in the PersistentPriorityMatrix
+ * @param <P> the type of priorities associated with the elements in the PersistentPriorityMatrix, which must extend Comparable<P>
+ */
+public class PersistentPriorityMatrix<T, P extends Comparable<P>> implements Iterable<T> {
+
+    /**
+     * An immutable version of the PersistentPriorityMatrix.
+     *
+     * @param <T> the type of elements stored in the snapshot
+     * @param <P> the type of priorities associated with the elements in the snapshot
+     */
+    public static final class Snapshot<T, P extends Comparable<P>> implements Iterable<T> {
+        private final PersistentTree<P, PersistentTree<Long, T>> rows;
+        private final int size;
+        private final long version;
+
+        private Snapshot(PersistentTree<P, PersistentTree<Long, T>> rows, int size, long version) {
+            this.rows = rows;
+            this.size = size;
+            this.version = version;
+        }
+
+        /**
+         * Retrieves the element with the minimum priority in this snapshot.
+         *
+         * @return the element with the minimum priority, or null if the snapshot is empty
+         */
+        public T getMin() {
+            PersistentTree<Long, T> row = rows.firstValue();
+            return row == null ? null : row.bestValue();
+        }
+
+        /**
+         * Retrieves the element with the maximum priority in this snapshot.
+         *
+         * @return the element with the maximum priority, or null if the snapshot is empty
+         */
+        public T getMax() {
+            PersistentTree<Long, T> row = rows.lastValue();
+            return row == null ? null : row.bestValue();
+        }
+
+        /**
+         * Returns the number of elements in this snapshot.
+         *
+         * @return The total number of elements in the snapshot
+         */
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Checks if this snapshot has any elements.
+         *
+         * @return true if the snapshot is empty, false otherwise
+         */
+        public boolean isEmpty() {
+            return rows.isEmpty();
+        }
+
+        /**
+         * Returns the number of writes that had been published when this snapshot was taken.
+         *
+         * @return the version of this snapshot
+         */
+        public long getVersion() {
+            return version;
+        }
+
+        /**
+         * Returns an iterator over the rows in ascending priority order. Within a row, elements are visited in insertion order.
+         */
+        @Override
+        public Iterator<T> iterator() {
+            return new Iterator<T>() {
+                private final Iterator<PersistentTree<Long, T>> outerIterator = rows.iterator();
+                private Iterator<T> innerIterator = null;
+
+                @Override
+                public boolean hasNext() {
+                    while ((innerIterator == null || !innerIterator.hasNext()) && outerIterator.hasNext()) {
+                        innerIterator = outerIterator.next().iterator();
+                    }
+                    return innerIterator != null && innerIterator.hasNext();
+                }
+
+                @Override
+                public T next() {
+                    if (!hasNext()) {
+                        throw new IllegalStateException("No more elements to iterate.");
+                    }
+                    return innerIterator.next();
+                }
+            };
+        }
+    }
+
+    /**
+     * The position of an element: its row and its sequence number within the row.
+     */
+    private static final class Slot<P> {
+        private final P priority;
+        private final long sequence;
+
+        private Slot(P priority, long sequence) {
+            this.priority = priority;
+            this.sequence = sequence;
+        }
+    }
+
+    private final Comparator<T> comparator;
+    private final AtomicReference<Snapshot<T, P>> current;
+    private final Map<T, Slot<P>> elementToSlotMap;
+    private long nextSequence;
+
+    /**
+     * Constructs a new PersistentPriorityMatrix with the specified comparator to order elements within the same priority level.
+     *
+     * @param comparator the comparator that will be used to order elements within the same priority level
+     */
+    public PersistentPriorityMatrix(Comparator<T> comparator) {
+        this.comparator = comparator;
+        this.current = new AtomicReference<>(new Snapshot<>(PersistentTree.empty(Comparator.<P>naturalOrder(), null), 0, 0));
+        this.elementToSlotMap = new HashMap<>();
+    }
+
+    /**
+     * Returns the latest published version of the matrix. This never blocks.
+     *
+     * @return an immutable snapshot
+     */
+    public Snapshot<T, P> snapshot() {
+        return current.get();
+    }
+
+    /**
+     * Inserts the specified element with the specified priority and publishes a new version.
+     * If building the new version fails, the matrix is left unchanged.
+     *
+     * @param element  the element to be inserted
+     * @param priority the priority associated with the element
+     * @throws NullPointerException     if the element or the priority is null
+     * @throws IllegalArgumentException if the element already exists in the PersistentPriorityMatrix
+     */
+    public synchronized void insert(T element, P priority) {
+        Objects.requireNonNull(element);
+        Objects.requireNonNull(priority);
+        if (elementToSlotMap.containsKey(element)) {
+            throw new IllegalArgumentException("Element already exists in the Priority Matrix");
+        }
+
+        Slot<P> slot = new Slot<>(priority, nextSequence);
+        PersistentTree<P, PersistentTree<Long, T>> rows = addToRows(current.get().rows, element, slot);
+        nextSequence++;
+        elementToSlotMap.put(element, slot);
+        publish(rows);
+    }
+
+    /**
+     * Updates the priority of the specified element and publishes a single new version.
+     * If building the new version fails, the matrix is left unchanged.
+     *
+     * @param element The element to update
+     * @param newPriority The new priority value of the element
+     * @throws NullPointerException if the element or the new priority is null
+     */
+    public synchronized void updatePriority(T element, P newPriority) {
+        Objects.requireNonNull(element);
+        Objects.requireNonNull(newPriority);
+        Slot<P> slot = elementToSlotMap.get(element);
+        PersistentTree<P, PersistentTree<Long, T>> rows = current.get().rows;
+        if (slot != null) {
+            rows = removeFromRows(rows, slot);
+        }
+
+        Slot<P> newSlot = new Slot<>(newPriority, nextSequence);
+        rows = addToRows(rows, element, newSlot);
+        nextSequence++;
+        elementToSlotMap.put(element, newSlot);
+        publish(rows);
+    }
+
+    /**
+     * Removes the specified element and publishes a new version.
+     * If building the new version fails, the matrix is left unchanged.
+     *
+     * @param element the element to be removed
+     * @return true if the element was removed, false if the element was not found
+     */
+    public synchronized boolean remove(T element) {
+        Slot<P> slot = elementToSlotMap.get(element);
+        if (slot == null) {
+            return false;
+        }
+
+        PersistentTree<P, PersistentTree<Long, T>> rows = removeFromRows(current.get().rows, slot);
+        elementToSlotMap.remove(element);
+        publish(rows);
+        return true;
+    }
+
+    /**
+     * Retrieves and removes the element with the minimum priority and publishes a new version.
+     *
+     * @return the element with the minimum priority, or null if the PersistentPriorityMatrix is empty
+     */
+    public synchronized T extractMin() {
+        T minElement = current.get().getMin();
+        if (minElement != null) {
+            remove(minElement);
+        }
+        return minElement;
+    }
+
+    /**
+     * Retrieves and removes the element with the maximum priority and publishes a new version.
+     *
+     * @return the element with the maximum priority, or null if the PersistentPriorityMatrix is empty
+     */
+    public synchronized T extractMax() {
+        T maxElement = current.get().getMax();
+        if (maxElement != null) {
+            remove(maxElement);
+        }
+        return maxElement;
+    }
+
+    /**
+     * Retrieves the element with the minimum priority from the latest version.
+     *
+     * @return the element with the minimum priority, or null if the PersistentPriorityMatrix is empty
+     */
+    public T getMin() {
+        return snapshot().getMin();
+    }
+
+    /**
+     * Retrieves the element with the maximum priority from the latest version.
+     *
+     * @return the element with the maximum priority, or null if the PersistentPriorityMatrix is empty
+     */
+    public T getMax() {
+        return snapshot().getMax();
+    }
+
+    /**
+     * Checks if the latest version has any elements.
+     *
+     * @return true if the PersistentPriorityMatrix is empty, false otherwise
+     */
+    public boolean isEmpty() {
+        return snapshot().isEmpty();
+    }
+
+    /**
+     * Returns the number of elements in the latest version.
+     *
+     * @return The total number of elements in the PersistentPriorityMatrix
+     */
+    public int size() {
+        return snapshot().size();
+    }
+
+    /**
+     * Returns an iterator over the latest version, which is not affected by later writes.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return snapshot().iterator();
+    }
+
+    private PersistentTree<P, PersistentTree<Long, T>> addToRows(PersistentTree<P, PersistentTree<Long, T>> rows, T element, Slot<P> slot) {
+        PersistentTree<Long, T> row = rows.get(slot.priority);
+        if (row == null) {
+            row = PersistentTree.empty(Comparator.naturalOrder(), comparator);
+        }
+        return rows.put(slot.priority, row.put(slot.sequence, element));
+    }
+
+    private PersistentTree<P, PersistentTree<Long, T>> removeFromRows(PersistentTree<P, PersistentTree<Long, T>> rows, Slot<P> slot) {
+        PersistentTree<Long, T> row = rows.get(slot.priority).remove(slot.sequence);
+        return row.isEmpty() ? rows.remove(slot.priority) : rows.put(slot.priority, row);
+    }
+
+    private void publish(PersistentTree<P, PersistentTree<Long, T>> rows) {
+        current.set(new Snapshot<>(rows, elementToSlotMap.size(), current.get().version + 1));
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("PersistentPriorityMatrix{");
+
+        snapshot().rows.forEach((priority, row) -> {
+            sb.append("\nPriority ").append(priority).append(": ");
+            boolean isFirst = true;
+            for (T element : row) {
+                if (!isFirst) {
+                    sb.append(", ");
+                }
+                sb.append(element);
+                isFirst = false;
+            }
+        });
+
+        sb.append("\n}");
+        return sb.toString();
+    }
+}
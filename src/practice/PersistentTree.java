@@ -0,0 +1,282 @@
+package practice;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.function.BiConsumer;
+
+/**
+ * PersistentTree is an immutable AVL tree map used by the PersistentPriorityMatrix.
+ * Every update returns a new tree that shares all untouched nodes with the old one,
+ * so it copies only the O(log n) nodes on the path to the changed key.
+ *
+ * <p>
+ * If a value order is given, every node also remembers the best value of its subtree under that order,
+ * which makes bestValue() O(1). This lets a row be keyed by an immutable insertion sequence while still
+ * answering which element comes first by the row comparator.
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of values
+ */
+final class PersistentTree<K, V> implements Iterable<V> {
+    private final Comparator<? super K> keyOrder;
+    private final Comparator<? super V> valueOrder;
+    private final Node<K, V> root;
+
+    private PersistentTree(Comparator<? super K> keyOrder, Comparator<? super V> valueOrder, Node<K, V> root) {
+        this.keyOrder = keyOrder;
+        this.valueOrder = valueOrder;
+        this.root = root;
+    }
+
+    /**
+     * Returns an empty tree.
+     *
+     * @param keyOrder   the order of keys
+     * @param valueOrder the order used by bestValue(), or null if it is not needed
+     * @return the empty tree
+     */
+    static <K, V> PersistentTree<K, V> empty(Comparator<? super K> keyOrder, Comparator<? super V> valueOrder) {
+        return new PersistentTree<>(keyOrder, valueOrder, null);
+    }
+
+    /**
+     * Returns the value mapped to the key.
+     *
+     * @param key the key to look up
+     * @return the value, or null if the key is not in the tree
+     */
+    V get(K key) {
+        Node<K, V> node = root;
+        while (node != null) {
+            int cmp = keyOrder.compare(key, node.key);
+            if (cmp == 0) {
+                return node.value;
+            }
+            node = cmp < 0 ? node.left : node.right;
+        }
+        return null;
+    }
+
+    /**
+     * Returns a tree in which the key is mapped to the value.
+     *
+     * @param key   the key
+     * @param value the value
+     * @return the new tree
+     */
+    PersistentTree<K, V> put(K key, V value) {
+        return new PersistentTree<>(keyOrder, valueOrder, put(root, key, value));
+    }
+
+    /**
+     * Returns a tree without the key. If the key is not present, this tree is returned.
+     *
+     * @param key the key
+     * @return the new tree
+     */
+    PersistentTree<K, V> remove(K key) {
+        Node<K, V> newRoot = remove(root, key);
+        return newRoot == root ? this : new PersistentTree<>(keyOrder, valueOrder, newRoot);
+    }
+
+    /**
+     * Returns the value of the smallest key, or null if the tree is empty.
+     */
+    V firstValue() {
+        Node<K, V> node = root;
+        if (node == null) {
+            return null;
+        }
+        while (node.left != null) {
+            node = node.left;
+        }
+        return node.value;
+    }
+
+    /**
+     * Returns the value of the largest key, or null if the tree is empty.
+     */
+    V lastValue() {
+        Node<K, V> node = root;
+        if (node == null) {
+            return null;
+        }
+        while (node.right != null) {
+            node = node.right;
+        }
+        return node.value;
+    }
+
+    /**
+     * Returns the first value under the value order, or null if the tree is empty.
+     */
+    V bestValue() {
+        return root == null ? null : root.best;
+    }
+
+    boolean isEmpty() {
+        return root == null;
+    }
+
+    /**
+     * Returns an iterator over the values in ascending key order.
+     */
+    @Override
+    public Iterator<V> iterator() {
+        return new Iterator<V>() {
+            private final Deque<Node<K, V>> stack = new ArrayDeque<>();
+
+            {
+                pushLeftEdge(root);
+            }
+
+            private void pushLeftEdge(Node<K, V> node) {
+                while (node != null) {
+                    stack.push(node);
+                    node = node.left;
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                return !stack.isEmpty();
+            }
+
+            @Override
+            public V next() {
+                if (!hasNext()) {
+                    throw new IllegalStateException("No more elements to iterate.");
+                }
+                Node<K, V> node = stack.pop();
+                pushLeftEdge(node.right);
+                return node.value;
+            }
+        };
+    }
+
+    /**
+     * Passes every key and value to the action in ascending key order.
+     *
+     * @param action the action to perform
+     */
+    void forEach(BiConsumer<? super K, ? super V> action) {
+        forEach(root, action);
+    }
+
+    private static <K, V> void forEach(Node<K, V> node, BiConsumer<? super K, ? super V> action) {
+        if (node != null) {
+            forEach(node.left, action);
+            action.accept(node.key, node.value);
+            forEach(node.right, action);
+        }
+    }
+
+    private Node<K, V> put(Node<K, V> node, K key, V value) {
+        if (node == null) {
+            return newNode(key, value, null, null);
+        }
+
+        int cmp = keyOrder.compare(key, node.key);
+        if (cmp == 0) {
+            return newNode(key, value, node.left, node.right);
+        }
+        if (cmp < 0) {
+            return balance(node.key, node.value, put(node.left, key, value), node.right);
+        }
+        return balance(node.key, node.value, node.left, put(node.right, key, value));
+    }
+
+    private Node<K, V> remove(Node<K, V> node, K key) {
+        if (node == null) {
+            return null;
+        }
+
+        int cmp = keyOrder.compare(key, node.key);
+        if (cmp < 0) {
+            Node<K, V> left = remove(node.left, key);
+            return left == node.left ? node : balance(node.key, node.value, left, node.right);
+        }
+        if (cmp > 0) {
+            Node<K, V> right = remove(node.right, key);
+            return right == node.right ? node : balance(node.key, node.value, node.left, right);
+        }
+
+        if (node.left == null) {
+            return node.right;
+        }
+        if (node.right == null) {
+            return node.left;
+        }
+        Node<K, V> successor = node.right;
+        while (successor.left != null) {
+            successor = successor.left;
+        }
+        return balance(successor.key, successor.value, node.left, removeFirst(node.right));
+    }
+
+    private Node<K, V> removeFirst(Node<K, V> node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        return balance(node.key, node.value, removeFirst(node.left), node.right);
+    }
+
+    private Node<K, V> balance(K key, V value, Node<K, V> left, Node<K, V> right) {
+        int leftHeight = height(left);
+        int rightHeight = height(right);
+        if (leftHeight > rightHeight + 1) {
+            if (height(left.left) >= height(left.right)) {
+                return newNode(left.key, left.value, left.left, newNode(key, value, left.right, right));
+            }
+            return newNode(left.right.key, left.right.value,
+                    newNode(left.key, left.value, left.left, left.right.left),
+                    newNode(key, value, left.right.right, right));
+        }
+        if (rightHeight > leftHeight + 1) {
+            if (height(right.right) >= height(right.left)) {
+                return newNode(right.key, right.value, newNode(key, value, left, right.left), right.right);
+            }
+            return newNode(right.left.key, right.left.value,
+                    newNode(key, value, left, right.left.left),
+                    newNode(right.key, right.value, right.left.right, right.right));
+        }
+        return newNode(key, value, left, right);
+    }
+
+    private Node<K, V> newNode(K key, V value, Node<K, V> left, Node<K, V> right) {
+        V best = value;
+        if (valueOrder != null) {
+            if (left != null && valueOrder.compare(left.best, best) <= 0) {
+                best = left.best;
+            }
+            if (right != null && valueOrder.compare(right.best, best) < 0) {
+                best = right.best;
+            }
+        }
+        return new Node<>(key, value, left, right, best);
+    }
+
+    private static int height(Node<?, ?> node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static final class Node<K, V> {
+        private final K key;
+        private final V value;
+        private final Node<K, V> left;
+        private final Node<K, V> right;
+        private final int height;
+        private final V best;
+
+        private Node(K key, V value, Node<K, V> left, Node<K, V> right, V best) {
+            this.key = key;
+            this.value = value;
+            this.left = left;
+            this.right = right;
+            this.height = Math.max(height(left), height(right)) + 1;
+            this.best = best;
+        }
+    }
+}
@@ -1,15 +1,21 @@
 package practice;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.PriorityQueue;
 import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
 
 /**
  * PriorityMatrix is a data structure that organizes elements based on their priorities.
- * It combines a TreeMap and PriorityQueues to allow efficient access to elements
+ * It combines a TreeMap and per-row binary heaps to allow efficient access to elements
  * with minimum and maximum priorities. The PriorityMatrix also supports insertion, removal,
  * and updating priorities of elements.
  *
@@ -27,13 +33,26 @@ import java.util.TreeMap;
  * <p>
  * In this example, getMin() would return R1 and getMax() would return R3.
  *
+ * <p>
+ * Elements may optionally be inserted with a time to live, after which they expire unless touch() renews them.
+ * Expired elements are removed in batches by tick(), or lazily when getMin(), extractMin(), getMax() or
+ * extractMax() would return them, and each removal is reported to the expiry listener. peekMin() and
+ * peekMax() skip expired elements without removing them. Until they are removed, expired elements
+ * still count towards size() and are visited by iteration.
+ *
  * @param <T> the type of elements stored in the PriorityMatrix
  * @param <P> the type of priorities associated with the elements in the PriorityMatrix, which must extend Comparable<P>
  */
 public class PriorityMatrix<T, P extends Comparable<P>> implements Iterable<T> {
-    private final TreeMap<P, PriorityQueue<T>> matrix;
+    private static final long EXPIRY_TICK_MILLIS = 10;
+
+    private final TreeMap<P, RowHeap<T>> matrix;
     private final Map<T, P> elementToPriorityMap;
     private final Comparator<T> comparator;
+    private final LongSupplier clock;
+    private final Map<T, TimingWheel.Lease<T>> elementToLeaseMap;
+    private TimingWheel<T> expiryWheel;
+    private Consumer<T> expiryListener;
 
     /**
      * Constructs a new PriorityMatrix with the specified comparator to order elements within the same priority level.
@@ -41,9 +60,22 @@ public class PriorityMatrix<T, P extends Comparable<P>> implements Iterable<T> {
      * @param comparator the comparator that will be used to order elements within the same priority level
      */
     public PriorityMatrix(Comparator<T> comparator) {
+        // A monotonic clock, so that wall clock adjustments neither expire every lease at once nor stop expiry.
+        this(comparator, () -> System.nanoTime() / 1_000_000);
+    }
+
+    /**
+     * Constructs a new PriorityMatrix with the specified comparator and the clock used to expire elements.
+     *
+     * @param comparator the comparator that will be used to order elements within the same priority level
+     * @param clock      a monotonic source of the current time in milliseconds
+     */
+    public PriorityMatrix(Comparator<T> comparator, LongSupplier clock) {
         this.matrix = new TreeMap<>();
         this.elementToPriorityMap = new HashMap<>();
         this.comparator = comparator;
+        this.clock = clock;
+        this.elementToLeaseMap = new HashMap<>();
     }
 
     /**
@@ -58,20 +90,100 @@ public class PriorityMatrix<T, P extends Comparable<P>> implements Iterable<T> {
             throw new IllegalArgumentException("Element already exists in the Priority Matrix");
         }
 
-        matrix.putIfAbsent(priority, new PriorityQueue<>(comparator));
+        matrix.putIfAbsent(priority, new RowHeap<>(comparator));
         matrix.get(priority).add(element);
         elementToPriorityMap.put(element, priority);
     }
 
+    /**
+     * Inserts the specified element with the specified priority, expiring it once ttl has passed without a touch().
+     * The clock counts whole milliseconds, so ttl is truncated to milliseconds and must be at least one millisecond.
+     *
+     * @param element  the element to be inserted
+     * @param priority the priority associated with the element
+     * @param ttl      the time to live of the element, which must be at least one millisecond
+     * @throws IllegalArgumentException if the element already exists in the PriorityMatrix or ttl is shorter than one millisecond
+     */
+    public void insert(T element, P priority, Duration ttl) {
+        if (ttl.toMillis() < 1) {
+            throw new IllegalArgumentException("Time to live must be at least one millisecond");
+        }
+
+        insert(element, priority);
+        long now = clock.getAsLong();
+        if (expiryWheel == null) {
+            expiryWheel = new TimingWheel<>(EXPIRY_TICK_MILLIS, now);
+        }
+        elementToLeaseMap.put(element, expiryWheel.schedule(element, ttl.toMillis(), now));
+    }
+
+    /**
+     * Renews the time to live of the specified element, starting from now.
+     * An element whose time to live has already passed is removed instead of renewed.
+     *
+     * @param element the element to renew
+     * @return true if the element was renewed, false if it was not found, had no time to live or has expired
+     */
+    public boolean touch(T element) {
+        TimingWheel.Lease<T> lease = elementToLeaseMap.get(element);
+        if (lease == null) {
+            return false;
+        }
+
+        long now = clock.getAsLong();
+        if (lease.deadlineMillis() <= now) {
+            expire(element);
+            return false;
+        }
+
+        expiryWheel.touch(lease, now);
+        return true;
+    }
+
+    /**
+     * Sets the listener that is called with every element removed because its time to live has passed.
+     *
+     * @param expiryListener the listener, or null to stop listening
+     */
+    public void setExpiryListener(Consumer<T> expiryListener) {
+        this.expiryListener = expiryListener;
+    }
+
+    /**
+     * Removes every element whose time to live has passed. Meant to be called periodically.
+     *
+     * @return the number of elements removed
+     */
+    public int tick() {
+        if (expiryWheel == null) {
+            return 0;
+        }
+
+        int removed = 0;
+        for (TimingWheel.Lease<T> lease : expiryWheel.advance(clock.getAsLong())) {
+            // An earlier expiry listener may have removed or re-inserted the element with a new lease.
+            if (elementToLeaseMap.get(lease.element()) == lease) {
+                expire(lease.element());
+                removed++;
+            }
+        }
+        return removed;
+    }
+
     /**
      * Updates the priority of the specified element in the PriorityMatrix.
+     * The time to live of the element, if any, is kept.
      *
      * @param element The element to update
      * @param newPriority The new priority value of the element
      */
     public void updatePriority(T element, P newPriority) {
+        TimingWheel.Lease<T> lease = elementToLeaseMap.remove(element);
         remove(element);
         insert(element, newPriority);
+        if (lease != null) {
+            elementToLeaseMap.put(element, lease);
+        }
     }
 
     /**
@@ -103,8 +215,9 @@ public class PriorityMatrix<T, P extends Comparable<P>> implements Iterable<T> {
         if (priority == null) {
             return false;
         }
+        cancelLease(element);
 
-        PriorityQueue<T> elements = matrix.get(priority);
+        RowHeap<T> elements = matrix.get(priority);
         boolean removed = elements.remove(element);
 
         if (elements.isEmpty()) {
@@ -120,12 +233,13 @@ public class PriorityMatrix<T, P extends Comparable<P>> implements Iterable<T> {
      * @return the element with the minimum priority, or null if the PriorityMatrix is empty
      */
     public T getMin() {
+        removeExpiredHead(true);
         if (matrix.isEmpty()) {
             return null;
         }
 
         P minPriority = matrix.firstKey();
-        PriorityQueue<T> elements = matrix.get(minPriority);
+        RowHeap<T> elements = matrix.get(minPriority);
         return elements.peek();
     }
 
@@ -135,12 +249,13 @@ public class PriorityMatrix<T, P extends Comparable<P>> implements Iterable<T> {
      * @return the element with the minimum priority, or null if the PriorityMatrix is empty
      */
     public T extractMin() {
+        removeExpiredHead(true);
         if (matrix.isEmpty()) {
             return null;
         }
 
         P minPriority = matrix.firstKey();
-        PriorityQueue<T> elements = matrix.get(minPriority);
+        RowHeap<T> elements = matrix.get(minPriority);
         T minElement = elements.poll();
 
         if (elements.isEmpty()) {
@@ -148,6 +263,7 @@ public class PriorityMatrix<T, P extends Comparable<P>> implements Iterable<T> {
         }
 
         elementToPriorityMap.remove(minElement);
+        cancelLease(minElement);
         return minElement;
     }
 
@@ -157,12 +273,13 @@ public class PriorityMatrix<T, P extends Comparable<P>> implements Iterable<T> {
      * @return the element with the maximum priority, or null if the PriorityMatrix is empty
      */
     public T getMax() {
+        removeExpiredHead(false);
         if (matrix.isEmpty()) {
             return null;
         }
 
         P maxPriority = matrix.lastKey();
-        PriorityQueue<T> elements = matrix.get(maxPriority);
+        RowHeap<T> elements = matrix.get(maxPriority);
         return elements.peek();
     }
 
@@ -173,12 +290,13 @@ public class PriorityMatrix<T, P extends Comparable<P>> implements Iterable<T> {
      * @return the element with the maximum priority, or null if the PriorityMatrix is empty
      */
     public T extractMax() {
+        removeExpiredHead(false);
         if (matrix.isEmpty()) {
             return null;
         }
 
         P maxPriority = matrix.lastKey();
-        PriorityQueue<T> elements = matrix.get(maxPriority);
+        RowHeap<T> elements = matrix.get(maxPriority);
         T maxElement = elements.poll();
 
         if (elements.isEmpty()) {
@@ -186,13 +304,111 @@ public class PriorityMatrix<T, P extends Comparable<P>> implements Iterable<T> {
         }
 
         elementToPriorityMap.remove(maxElement);
+        cancelLease(maxElement);
         return maxElement;
     }
 
+    /**
+     * Retrieves, but does not remove, up to k elements in the order that repeated calls to extractMin() would return them.
+     * Rows are walked in ascending priority order and each row is explored best-first through a small frontier heap,
+     * so the cost is O(k log k) and the PriorityMatrix is not modified. Elements whose time to live has passed are skipped.
+     *
+     * @param k the maximum number of elements to return
+     * @return a list of at most k elements, starting with the element with the minimum priority
+     * @throws IllegalArgumentException if k is negative
+     */
+    public List<T> peekMin(int k) {
+        return peek(k, matrix.values());
+    }
+
+    /**
+     * Retrieves, but does not remove, up to k elements in the order that repeated calls to extractMax() would return them.
+     * Rows are walked in descending priority order and each row is explored best-first through a small frontier heap,
+     * so the cost is O(k log k) and the PriorityMatrix is not modified. Elements whose time to live has passed are skipped.
+     *
+     * @param k the maximum number of elements to return
+     * @return a list of at most k elements, starting with the element with the maximum priority
+     * @throws IllegalArgumentException if k is negative
+     */
+    public List<T> peekMax(int k) {
+        return peek(k, matrix.descendingMap().values());
+    }
+
+    /**
+     * Removes expired elements from the first or last row for as long as one of them would be returned next.
+     */
+    private void removeExpiredHead(boolean min) {
+        if (elementToLeaseMap.isEmpty()) {
+            return;
+        }
+
+        long now = clock.getAsLong();
+        while (!matrix.isEmpty()) {
+            RowHeap<T> elements = min ? matrix.firstEntry().getValue() : matrix.lastEntry().getValue();
+            T element = elements.peek();
+            if (!isExpired(element, now)) {
+                return;
+            }
+            expire(element);
+        }
+    }
+
+    private boolean isExpired(T element, long now) {
+        TimingWheel.Lease<T> lease = elementToLeaseMap.get(element);
+        return lease != null && lease.deadlineMillis() <= now;
+    }
+
+    private void expire(T element) {
+        if (remove(element) && expiryListener != null) {
+            expiryListener.accept(element);
+        }
+    }
+
+    private void cancelLease(T element) {
+        TimingWheel.Lease<T> lease = elementToLeaseMap.remove(element);
+        if (lease != null) {
+            expiryWheel.cancel(lease);
+        }
+    }
+
+    private List<T> peek(int k, Collection<RowHeap<T>> rows) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must not be negative");
+        }
+
+        long now = elementToLeaseMap.isEmpty() ? 0 : clock.getAsLong();
+        List<T> result = new ArrayList<>(Math.min(k, size()));
+        for (RowHeap<T> row : rows) {
+            if (result.size() == k) {
+                break;
+            }
+
+            // The frontier holds heap array indexes whose parents have already been taken.
+            PriorityQueue<Integer> frontier = new PriorityQueue<>(
+                    (a, b) -> row.comparator().compare(row.get(a), row.get(b)));
+            frontier.add(0);
+            while (result.size() < k && !frontier.isEmpty()) {
+                int index = frontier.poll();
+                if (!isExpired(row.get(index), now)) {
+                    result.add(row.get(index));
+                }
+
+                int child = 2 * index + 1;
+                if (child < row.size()) {
+                    frontier.add(child);
+                }
+                if (child + 1 < row.size()) {
+                    frontier.add(child + 1);
+                }
+            }
+        }
+        return result;
+    }
+
     @Override
     public Iterator<T> iterator() {
         return new Iterator<T>() {
-            private final Iterator<Map.Entry<P, PriorityQueue<T>>> outerIterator = matrix.entrySet().iterator();
+            private final Iterator<Map.Entry<P, RowHeap<T>>> outerIterator = matrix.entrySet().iterator();
             private Iterator<T> innerIterator = null;
 
             @Override
@@ -218,9 +434,9 @@ public class PriorityMatrix<T, P extends Comparable<P>> implements Iterable<T> {
         StringBuilder sb = new StringBuilder();
         sb.append("PriorityMatrix{");
 
-        for (Map.Entry<P, PriorityQueue<T>> entry: matrix.entrySet()) {
+        for (Map.Entry<P, RowHeap<T>> entry: matrix.entrySet()) {
             P priority = entry.getKey();
-            PriorityQueue<T> elements = entry.getValue();
+            RowHeap<T> elements = entry.getValue();
 
             sb.append("\nPriority ").append(priority).append(": ");
             boolean isFirst = true;
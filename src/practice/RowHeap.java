@@ -0,0 +1,182 @@
+package practice;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Objects;
+
+/**
+ * RowHeap is the binary heap that backs a single row of the PriorityMatrix.
+ * It behaves like a PriorityQueue ordered by the row comparator, but also exposes
+ * the backing heap array by index so that rows can be explored best-first
+ * without polling elements out of them.
+ *
+ * <p>
+ * The element at index i has its children at indexes 2i + 1 and 2i + 2.
+ *
+ * @param <T> the type of elements stored in the row
+ */
+class RowHeap<T> implements Iterable<T> {
+    private static final int DEFAULT_CAPACITY = 11;
+
+    private final Comparator<? super T> comparator;
+    private Object[] heap;
+    private int size;
+
+    /**
+     * Constructs an empty RowHeap ordered by the specified comparator.
+     *
+     * @param comparator the comparator used to order elements in the row
+     */
+    RowHeap(Comparator<? super T> comparator) {
+        this.comparator = comparator;
+        this.heap = new Object[DEFAULT_CAPACITY];
+    }
+
+    /**
+     * Adds the specified element to the heap.
+     *
+     * @param element the element to be added
+     * @throws NullPointerException if the element is null
+     */
+    void add(T element) {
+        Objects.requireNonNull(element);
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, size * 2);
+        }
+        heap[size] = element;
+        siftUp(size);
+        size++;
+    }
+
+    /**
+     * Retrieves, but does not remove, the first element of the heap.
+     *
+     * @return the first element, or null if the heap is empty
+     */
+    T peek() {
+        return size == 0 ? null : get(0);
+    }
+
+    /**
+     * Retrieves and removes the first element of the heap.
+     *
+     * @return the first element, or null if the heap is empty
+     */
+    T poll() {
+        if (size == 0) {
+            return null;
+        }
+        T first = get(0);
+        removeAt(0);
+        return first;
+    }
+
+    /**
+     * Removes a single instance of the specified element from the heap.
+     *
+     * @param element the element to be removed
+     * @return true if the element was removed, false if it was not found
+     */
+    boolean remove(Object element) {
+        for (int i = 0; i < size; i++) {
+            if (element.equals(heap[i])) {
+                removeAt(i);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the element stored at the specified index of the heap array.
+     *
+     * @param index the index in the heap array, which must be less than size()
+     * @return the element at that index
+     */
+    @SuppressWarnings("unchecked")
+    T get(int index) {
+        return (T) heap[index];
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    Comparator<? super T> comparator() {
+        return comparator;
+    }
+
+    private void removeAt(int index) {
+        size--;
+        Object last = heap[size];
+        heap[size] = null;
+        if (index == size) {
+            return;
+        }
+        heap[index] = last;
+        siftDown(index);
+        if (heap[index] == last) {
+            siftUp(index);
+        }
+    }
+
+    private void siftUp(int index) {
+        T element = get(index);
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            T parentElement = get(parent);
+            if (comparator.compare(element, parentElement) >= 0) {
+                break;
+            }
+            heap[index] = parentElement;
+            index = parent;
+        }
+        heap[index] = element;
+    }
+
+    private void siftDown(int index) {
+        T element = get(index);
+        int half = size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            int right = child + 1;
+            if (right < size && comparator.compare(get(right), get(child)) < 0) {
+                child = right;
+            }
+            if (comparator.compare(element, get(child)) <= 0) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = element;
+    }
+
+    /**
+     * Returns an iterator over the elements in heap array order, which is not sorted order.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return index < size;
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new IllegalStateException("No more elements to iterate.");
+                }
+                return get(index++);
+            }
+        };
+    }
+}
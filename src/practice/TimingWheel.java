@@ -0,0 +1,252 @@
+package practice;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * TimingWheel is a hierarchical timing wheel that tracks element leases for the PriorityMatrix.
+ * Scheduling, touching and cancelling a lease are O(1). Advancing the wheel costs O(1) per tick at which
+ * a non-empty level moves, plus the work of moving leases down from coarser levels, which happens at most
+ * once per level per lease.
+ *
+ * <p>
+ * There are 4 levels of 64 slots. A slot of level L spans 64^L ticks, so leases up to 64^4 ticks away
+ * are kept in the wheel and longer ones wait in an overflow list that is revisited every 64^4 ticks.
+ * When the wheel reaches the start of a coarser slot, its leases are redistributed into finer levels.
+ * Stretches of time in which the finer levels are empty are skipped instead of ticked through.
+ *
+ * <p>
+ * A lease sits in the slot of the tick that contains its deadline. When that slot is reached,
+ * only leases whose exact deadline has passed expire; the rest stay in the slot and are checked
+ * again by the next advance, so a lease never expires early or late.
+ *
+ * @param <T> the type of elements that hold leases
+ */
+class TimingWheel<T> {
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+
+    /**
+     * A lease of a single element. Leases in the same slot form a doubly linked list around a sentinel.
+     */
+    static final class Lease<T> {
+        private final T element;
+        private final long ttlMillis;
+        private long deadlineMillis;
+        private long deadlineTick;
+        private int level;
+        private Lease<T> prev;
+        private Lease<T> next;
+
+        private Lease(T element, long ttlMillis) {
+            this.element = element;
+            this.ttlMillis = ttlMillis;
+        }
+
+        T element() {
+            return element;
+        }
+
+        long deadlineMillis() {
+            return deadlineMillis;
+        }
+
+        private boolean isScheduled() {
+            return next != null;
+        }
+
+        private void unlink() {
+            prev.next = next;
+            next.prev = prev;
+            prev = null;
+            next = null;
+        }
+    }
+
+    private final long tickMillis;
+    private final Lease<T>[][] wheels;
+    private final Lease<T> overflow;
+    // The number of leases in each level, with the overflow list counted as the last level.
+    private final int[] levelSizes;
+    private long currentTick;
+
+    /**
+     * Constructs an empty TimingWheel.
+     *
+     * @param tickMillis the duration of one tick in milliseconds
+     * @param nowMillis  the current time in milliseconds
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    TimingWheel(long tickMillis, long nowMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Tick duration must be positive");
+        }
+        this.tickMillis = tickMillis;
+        this.wheels = new Lease[LEVELS][SLOTS];
+        for (Lease<T>[] wheel : wheels) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                wheel[slot] = newSentinel();
+            }
+        }
+        this.overflow = newSentinel();
+        this.levelSizes = new int[LEVELS + 1];
+        this.currentTick = Math.floorDiv(nowMillis, tickMillis);
+    }
+
+    private static <T> Lease<T> newSentinel() {
+        Lease<T> sentinel = new Lease<>(null, 0);
+        sentinel.prev = sentinel;
+        sentinel.next = sentinel;
+        return sentinel;
+    }
+
+    /**
+     * Schedules a new lease that expires ttlMillis after nowMillis.
+     *
+     * @param element   the element holding the lease
+     * @param ttlMillis the time to live in milliseconds
+     * @param nowMillis the current time in milliseconds
+     * @return the lease, which can be touched or cancelled later
+     */
+    Lease<T> schedule(T element, long ttlMillis, long nowMillis) {
+        Lease<T> lease = new Lease<>(element, ttlMillis);
+        start(lease, nowMillis);
+        return lease;
+    }
+
+    /**
+     * Renews the lease so that it expires its time to live after nowMillis.
+     *
+     * @param lease     the lease to renew
+     * @param nowMillis the current time in milliseconds
+     */
+    void touch(Lease<T> lease, long nowMillis) {
+        cancel(lease);
+        start(lease, nowMillis);
+    }
+
+    /**
+     * Cancels the lease. Cancelling a lease that has already expired or been cancelled does nothing.
+     *
+     * @param lease the lease to cancel
+     */
+    void cancel(Lease<T> lease) {
+        if (lease.isScheduled()) {
+            unlink(lease);
+        }
+    }
+
+    /**
+     * Advances the wheel to nowMillis and unschedules every lease whose deadline is at or before nowMillis.
+     * The caller handles the returned leases after the wheel is consistent, so it may schedule, touch or cancel
+     * other leases meanwhile. A returned lease may have been replaced by then, which the caller has to check.
+     *
+     * @param nowMillis the current time in milliseconds
+     * @return the expired leases
+     */
+    List<Lease<T>> advance(long nowMillis) {
+        long targetTick = Math.floorDiv(nowMillis, tickMillis);
+        List<Lease<T>> expired = new ArrayList<>();
+
+        // Leases of the current tick that were not due yet when it was reached.
+        collectExpired(wheels[0][slotIndex(currentTick, 0)], nowMillis, expired);
+        while (currentTick < targetTick) {
+            // Nothing can happen before the next tick at which the finest non-empty level moves.
+            int finestLevel = 0;
+            while (finestLevel <= LEVELS && levelSizes[finestLevel] == 0) {
+                finestLevel++;
+            }
+            if (finestLevel > LEVELS) {
+                currentTick = targetTick;
+                break;
+            }
+            long nextTick = (currentTick | ((1L << (SLOT_BITS * finestLevel)) - 1)) + 1;
+            if (nextTick > targetTick) {
+                currentTick = targetTick;
+                break;
+            }
+
+            currentTick = nextTick;
+            if ((currentTick & ((1L << (SLOT_BITS * LEVELS)) - 1)) == 0) {
+                cascade(overflow);
+            }
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                    cascade(wheels[level][slotIndex(currentTick, level)]);
+                }
+            }
+
+            collectExpired(wheels[0][slotIndex(currentTick, 0)], nowMillis, expired);
+        }
+
+        return expired;
+    }
+
+    /**
+     * Unlinks every lease of the level 0 slot whose deadline is at or before nowMillis and adds it to expired.
+     */
+    private void collectExpired(Lease<T> slot, long nowMillis, List<Lease<T>> expired) {
+        Lease<T> lease = slot.next;
+        while (lease != slot) {
+            Lease<T> next = lease.next;
+            if (lease.deadlineMillis <= nowMillis) {
+                unlink(lease);
+                expired.add(lease);
+            }
+            lease = next;
+        }
+    }
+
+    private void start(Lease<T> lease, long nowMillis) {
+        lease.deadlineMillis = nowMillis + lease.ttlMillis;
+        lease.deadlineTick = Math.max(Math.floorDiv(lease.deadlineMillis, tickMillis), currentTick);
+        place(lease);
+    }
+
+    /**
+     * Moves every lease of the slot into the level that now matches its distance from the current tick.
+     */
+    private void cascade(Lease<T> slot) {
+        Lease<T> lease = slot.next;
+        slot.next = slot;
+        slot.prev = slot;
+        while (lease != slot) {
+            Lease<T> next = lease.next;
+            lease.prev = null;
+            lease.next = null;
+            levelSizes[lease.level]--;
+            place(lease);
+            lease = next;
+        }
+    }
+
+    private void place(Lease<T> lease) {
+        long delta = Math.max(lease.deadlineTick - currentTick, 0);
+        Lease<T> slot = overflow;
+        lease.level = LEVELS;
+        for (int level = 0; level < LEVELS; level++) {
+            if (delta < 1L << (SLOT_BITS * (level + 1))) {
+                slot = wheels[level][slotIndex(Math.max(lease.deadlineTick, currentTick), level)];
+                lease.level = level;
+                break;
+            }
+        }
+        levelSizes[lease.level]++;
+
+        lease.prev = slot.prev;
+        lease.next = slot;
+        slot.prev.next = lease;
+        slot.prev = lease;
+    }
+
+    private void unlink(Lease<T> lease) {
+        lease.unlink();
+        levelSizes[lease.level]--;
+    }
+
+    private static int slotIndex(long tick, int level) {
+        return (int) ((tick >>> (SLOT_BITS * level)) & SLOT_MASK);
+    }
+}
@@ -0,0 +1,154 @@
+package practice.samples;
+
+import practice.MonotonePriorityMatrix;
+import practice.PriorityMatrix;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+/**
+ * Runs Dijkstra on a large synthetic grid graph, once with the TreeMap rows of PriorityMatrix
+ * and once with the radix heap of MonotonePriorityMatrix, and prints the time taken by each.
+ * <p>
+ * Usage: DijkstraBenchmark [gridSize] [maxEdgeCost] [rounds]
+ */
+public class DijkstraBenchmark {
+
+    /**
+     * A grid of width * width nodes, each connected to its four neighbours with random edge costs.
+     */
+    static class GridGraph {
+        final int width;
+        // right[n] is the cost of the edge between n and n + 1, down[n] between n and n + width.
+        final int[] right;
+        final int[] down;
+
+        GridGraph(int width, int maxEdgeCost, long seed) {
+            this.width = width;
+            this.right = new int[width * width];
+            this.down = new int[width * width];
+            Random random = new Random(seed);
+            for (int n = 0; n < right.length; n++) {
+                right[n] = 1 + random.nextInt(maxEdgeCost);
+                down[n] = 1 + random.nextInt(maxEdgeCost);
+            }
+        }
+
+        int size() {
+            return width * width;
+        }
+
+        /**
+         * Writes the neighbours of node n into neighbours and their edge costs into costs.
+         *
+         * @return the number of neighbours
+         */
+        int neighbours(int n, int[] neighbours, int[] costs) {
+            int count = 0;
+            int x = n % width;
+            int y = n / width;
+            if (x + 1 < width) {
+                neighbours[count] = n + 1;
+                costs[count++] = right[n];
+            }
+            if (x > 0) {
+                neighbours[count] = n - 1;
+                costs[count++] = right[n - 1];
+            }
+            if (y + 1 < width) {
+                neighbours[count] = n + width;
+                costs[count++] = down[n];
+            }
+            if (y > 0) {
+                neighbours[count] = n - width;
+                costs[count++] = down[n - width];
+            }
+            return count;
+        }
+    }
+
+    static long[] dijkstraTreeMapRows(GridGraph graph, int source) {
+        long[] distance = new long[graph.size()];
+        Arrays.fill(distance, Long.MAX_VALUE);
+        int[] neighbours = new int[4];
+        int[] costs = new int[4];
+
+        PriorityMatrix<Integer, Long> matrix = new PriorityMatrix<>(Comparator.<Integer>naturalOrder());
+        distance[source] = 0;
+        matrix.insert(source, 0L);
+        while (!matrix.isEmpty()) {
+            int node = matrix.extractMin();
+            int count = graph.neighbours(node, neighbours, costs);
+            for (int i = 0; i < count; i++) {
+                long candidate = distance[node] + costs[i];
+                int next = neighbours[i];
+                if (candidate < distance[next]) {
+                    boolean queued = distance[next] != Long.MAX_VALUE;
+                    distance[next] = candidate;
+                    if (queued) {
+                        matrix.updatePriority(next, candidate);
+                    } else {
+                        matrix.insert(next, candidate);
+                    }
+                }
+            }
+        }
+        return distance;
+    }
+
+    static long[] dijkstraRadixHeap(GridGraph graph, int source) {
+        long[] distance = new long[graph.size()];
+        Arrays.fill(distance, Long.MAX_VALUE);
+        int[] neighbours = new int[4];
+        int[] costs = new int[4];
+
+        MonotonePriorityMatrix<Integer> matrix = new MonotonePriorityMatrix<>(Comparator.<Integer>naturalOrder());
+        distance[source] = 0;
+        matrix.insert(source, 0L);
+        while (!matrix.isEmpty()) {
+            int node = matrix.extractMin();
+            int count = graph.neighbours(node, neighbours, costs);
+            for (int i = 0; i < count; i++) {
+                long candidate = distance[node] + costs[i];
+                int next = neighbours[i];
+                if (candidate < distance[next]) {
+                    boolean queued = distance[next] != Long.MAX_VALUE;
+                    distance[next] = candidate;
+                    if (queued) {
+                        matrix.updatePriority(next, candidate);
+                    } else {
+                        matrix.insert(next, candidate);
+                    }
+                }
+            }
+        }
+        return distance;
+    }
+
+    public static void main(String[] args) {
+        int width = args.length > 0 ? Integer.parseInt(args[0]) : 700;
+        int maxEdgeCost = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+        int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        GridGraph graph = new GridGraph(width, maxEdgeCost, 42);
+        System.out.println("Grid " + width + "x" + width + " (" + graph.size() + " nodes), edge costs 1.." + maxEdgeCost);
+
+        long[] expected = dijkstraTreeMapRows(graph, 0);
+        if (!Arrays.equals(expected, dijkstraRadixHeap(graph, 0))) {
+            throw new IllegalStateException("Radix heap distances differ from TreeMap rows distances");
+        }
+
+        for (int round = 1; round <= rounds; round++) {
+            long start = System.nanoTime();
+            dijkstraTreeMapRows(graph, 0);
+            long treeMapMillis = (System.nanoTime() - start) / 1_000_000;
+
+            start = System.nanoTime();
+            dijkstraRadixHeap(graph, 0);
+            long radixMillis = (System.nanoTime() - start) / 1_000_000;
+
+            System.out.println("Round " + round + ": TreeMap rows " + treeMapMillis + " ms, radix heap " + radixMillis + " ms");
+        }
+    }
+}
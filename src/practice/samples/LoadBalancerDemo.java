@@ -2,9 +2,11 @@ package practice.samples;
 
 import practice.PriorityMatrix;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.function.LongSupplier;
 
 /**
  * This example was GPT4 sample.
@@ -12,17 +14,28 @@ import java.util.List;
  * demonstrating the full use of the data structure.
  */
 class LoadBalancer {
+    // A server that sends no heartbeat for this long is dropped from the matrix.
+    private static final Duration SERVER_LEASE = Duration.ofSeconds(30);
+
     private final PriorityMatrix<Server, Integer> serverMatrix;
 
-    public LoadBalancer() {
+    public LoadBalancer(LongSupplier clock) {
         Comparator<Server> serverComparator = Comparator.comparingInt(server -> server.capacity);
-        this.serverMatrix = new PriorityMatrix<>(serverComparator);
+        this.serverMatrix = new PriorityMatrix<>(serverComparator, clock);
+        this.serverMatrix.setExpiryListener(server -> System.out.println("Server " + server.name + " missed its heartbeats and was removed"));
     }
 
     public void addServer(Server server) {
-        serverMatrix.insert(server, server.capacity);
+        serverMatrix.insert(server, server.capacity, SERVER_LEASE);
     }
 
+    public void heartbeat(Server server) {
+        serverMatrix.touch(server);
+    }
+
+    public void removeDeadServers() {
+        serverMatrix.tick();
+    }
 
     public Server getServerWithCapacity() {
         return serverMatrix.getMin();
@@ -38,19 +51,33 @@ class LoadBalancer {
         System.out.println("Processing task " + task.name + " with priority " + task.priority + " on server " + server.name);
         server.capacity--;
 
-        serverMatrix.remove(server); // Remove the server before re-inserting it
+        // Updating the priority keeps the lease of the server.
         if (server.capacity > 0) {
-            serverMatrix.insert(server, server.capacity);
+            serverMatrix.updatePriority(server, server.capacity);
+        } else {
+            serverMatrix.remove(server);
         }
     }
 }
 
 public class LoadBalancerDemo {
     public static void main(String[] args) {
-        LoadBalancer loadBalancer = new LoadBalancer();
-        loadBalancer.addServer(new Server("Server1", 3));
-        loadBalancer.addServer(new Server("Server2", 5));
-        loadBalancer.addServer(new Server("Server3", 2));
+        // A simulated clock in milliseconds, so the demo does not have to wait for leases to run out.
+        long[] now = {0};
+        LoadBalancer loadBalancer = new LoadBalancer(() -> now[0]);
+        Server server1 = new Server("Server1", 3);
+        Server server2 = new Server("Server2", 5);
+        Server server3 = new Server("Server3", 2);
+        loadBalancer.addServer(server1);
+        loadBalancer.addServer(server2);
+        loadBalancer.addServer(server3);
+
+        // Server3 stops sending heartbeats and is removed once its lease runs out.
+        now[0] += 20_000;
+        loadBalancer.heartbeat(server1);
+        loadBalancer.heartbeat(server2);
+        now[0] += 15_000;
+        loadBalancer.removeDeadServers();
 
         List<BalancerTask> tasks = new ArrayList<>();
         tasks.add(new BalancerTask("Task1", 5));
@@ -0,0 +1,133 @@
+package practice.samples;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import practice.MonotonePriorityMatrix;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MonotonePriorityMatrixTest {
+    private MonotonePriorityMatrix<Resource> resourceMatrix;
+    private Resource resource1;
+    private Resource resource2;
+    private Resource resource3;
+    private Resource resource4;
+
+    @BeforeEach
+    void setUp() {
+        Comparator<Resource> resourceComparator = Comparator.comparingInt(resource -> resource.availableResourcesRAM);
+        resourceMatrix = new MonotonePriorityMatrix<>(resourceComparator.reversed());
+
+        resource1 = new Resource("Node1", 1, 10);
+        resource2 = new Resource("Node2", 1, 6);
+        resource3 = new Resource("Node3", 2, 10);
+        resource4 = new Resource("Node4", 2, 6);
+    }
+
+    @Test
+    void extractMinWithTieBreak() {
+        resourceMatrix.insert(resource4, 2000);
+        resourceMatrix.insert(resource2, 1000);
+        resourceMatrix.insert(resource3, 2000);
+        resourceMatrix.insert(resource1, 1000);
+
+        assertEquals(resource1, resourceMatrix.getMin());
+        assertEquals(resource1, resourceMatrix.extractMin());
+        assertEquals(resource2, resourceMatrix.extractMin());
+        assertEquals(resource3, resourceMatrix.extractMin());
+        assertEquals(resource4, resourceMatrix.extractMin());
+        assertNull(resourceMatrix.extractMin());
+        assertTrue(resourceMatrix.isEmpty());
+    }
+
+    @Test
+    void rejectsPriorityBelowLastExtracted() {
+        resourceMatrix.insert(resource1, 5);
+        resourceMatrix.insert(resource2, 9);
+        assertEquals(resource1, resourceMatrix.extractMin());
+        assertEquals(5, resourceMatrix.getLastPriority());
+
+        assertThrows(IllegalArgumentException.class, () -> resourceMatrix.insert(resource3, 4));
+        assertThrows(IllegalArgumentException.class, () -> resourceMatrix.updatePriority(resource2, 4));
+        assertThrows(IllegalArgumentException.class, () -> resourceMatrix.insert(resource2, 9));
+
+        resourceMatrix.insert(resource3, 5);
+        assertEquals(resource3, resourceMatrix.getMin());
+    }
+
+    @Test
+    void getMinDoesNotRaiseExtractedFloor() {
+        resourceMatrix.insert(resource1, 100);
+        resourceMatrix.insert(resource2, 200);
+
+        assertEquals(resource1, resourceMatrix.getMin());
+        assertEquals(Long.MIN_VALUE, resourceMatrix.getLastPriority());
+
+        // Nothing was extracted, so a lower priority is still accepted and becomes the minimum.
+        resourceMatrix.insert(resource3, 50);
+        assertEquals(resource3, resourceMatrix.getMin());
+        resourceMatrix.remove(resource3);
+        assertEquals(resource1, resourceMatrix.getMin());
+
+        assertEquals(resource1, resourceMatrix.extractMin());
+        assertEquals(100, resourceMatrix.getLastPriority());
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> resourceMatrix.insert(resource3, 99));
+        assertEquals("Priority 99 is below the last extracted priority 100", exception.getMessage());
+    }
+
+    @Test
+    void removeAndUpdatePriority() {
+        resourceMatrix.insert(resource1, 10);
+        resourceMatrix.insert(resource2, 20);
+        resourceMatrix.insert(resource3, 30);
+        resourceMatrix.insert(resource4, 40);
+
+        assertTrue(resourceMatrix.remove(resource1));
+        assertFalse(resourceMatrix.remove(resource1));
+        assertEquals(3, resourceMatrix.size());
+
+        resourceMatrix.updatePriority(resource4, 15);
+        assertEquals(15L, resourceMatrix.getPriority(resource4));
+        assertEquals(resource4, resourceMatrix.extractMin());
+        assertEquals(resource2, resourceMatrix.extractMin());
+        assertEquals(resource3, resourceMatrix.extractMin());
+        assertNull(resourceMatrix.getPriority(resource3));
+    }
+
+    @Test
+    void randomMonotoneOperationsMatchSortedOrder() {
+        MonotonePriorityMatrix<Integer> matrix = new MonotonePriorityMatrix<>(Comparator.<Integer>naturalOrder());
+        Random random = new Random(42);
+        long[] priorities = new long[1000];
+        List<Integer> extracted = new ArrayList<>();
+        long last = Long.MIN_VALUE;
+
+        for (int i = 0; i < priorities.length; i++) {
+            priorities[i] = random.nextInt(100_000) - 50_000;
+            matrix.insert(i, priorities[i]);
+        }
+        for (int i = 0; i < 1500; i++) {
+            Integer element = matrix.extractMin();
+            long priority = priorities[element];
+            assertTrue(priority >= last);
+            if (priority == last) {
+                assertTrue(element > extracted.get(extracted.size() - 1));
+            }
+            last = priority;
+            extracted.add(element);
+
+            // Push some elements back with larger costs, like edge relaxation does.
+            if (i % 2 == 0) {
+                priorities[element] = last + 1 + random.nextInt(1000);
+                matrix.insert(element, priorities[element]);
+            }
+        }
+        assertEquals(250, matrix.size());
+    }
+}
@@ -0,0 +1,185 @@
+package practice.samples;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import practice.MultiLevelPriorityMatrix;
+import practice.MultiLevelPriorityMatrix.Level;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MultiLevelPriorityMatrixTest {
+    private static class Host {
+        final String name;
+        int cpuClass;
+        int rack;
+        int availableRAM;
+
+        Host(String name, int cpuClass, int rack, int availableRAM) {
+            this.name = name;
+            this.cpuClass = cpuClass;
+            this.rack = rack;
+            this.availableRAM = availableRAM;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    private MultiLevelPriorityMatrix<Host> hostMatrix;
+    private Host host1;
+    private Host host2;
+    private Host host3;
+    private Host host4;
+
+    @BeforeEach
+    void setUp() {
+        // CPU class first, then rack locality, then the host with the most RAM.
+        Comparator<Host> ramComparator = Comparator.comparingInt(host -> host.availableRAM);
+        hostMatrix = new MultiLevelPriorityMatrix<>(
+                List.of(Level.sorted(host -> host.cpuClass), Level.buckets(host -> host.rack, 4)),
+                ramComparator.reversed());
+
+        host1 = new Host("Host1", 1, 0, 12);
+        host2 = new Host("Host2", 1, 0, 8);
+        host3 = new Host("Host3", 1, 3, 16);
+        host4 = new Host("Host4", 2, 1, 10);
+    }
+
+    private void insertAll() {
+        hostMatrix.insert(host1);
+        hostMatrix.insert(host2);
+        hostMatrix.insert(host3);
+        hostMatrix.insert(host4);
+    }
+
+    @Test
+    void insert() {
+        insertAll();
+        assertEquals(4, hostMatrix.size());
+        assertEquals(host1, hostMatrix.getMin());
+        assertEquals(host4, hostMatrix.getMax());
+
+        assertThrows(IllegalArgumentException.class, () -> hostMatrix.insert(host1));
+        assertThrows(IllegalArgumentException.class, () -> hostMatrix.insert(new Host("Host5", 1, 4, 1)));
+    }
+
+    @Test
+    void extractMinInLevelOrder() {
+        insertAll();
+
+        assertEquals(host1, hostMatrix.extractMin());
+        assertEquals(host2, hostMatrix.extractMin());
+        assertEquals(host3, hostMatrix.extractMin());
+        assertEquals(host4, hostMatrix.extractMin());
+        assertNull(hostMatrix.extractMin());
+        assertTrue(hostMatrix.isEmpty());
+    }
+
+    @Test
+    void extractMax() {
+        insertAll();
+
+        assertEquals(host4, hostMatrix.extractMax());
+        assertEquals(host3, hostMatrix.extractMax());
+        assertEquals(host1, hostMatrix.extractMax());
+        assertEquals(host2, hostMatrix.getMax());
+    }
+
+    @Test
+    void remove() {
+        insertAll();
+
+        assertTrue(hostMatrix.remove(host1));
+        assertEquals(host2, hostMatrix.getMin());
+        assertFalse(hostMatrix.remove(host1));
+
+        assertTrue(hostMatrix.remove(host4));
+        assertEquals(host3, hostMatrix.getMax());
+        assertEquals(2, hostMatrix.size());
+    }
+
+    @Test
+    void update() {
+        insertAll();
+
+        // Leaf order only.
+        host2.availableRAM = 20;
+        hostMatrix.update(host2);
+        assertEquals(host2, hostMatrix.getMin());
+
+        // Inner level only.
+        host2.rack = 2;
+        hostMatrix.update(host2);
+        assertEquals(host1, hostMatrix.getMin());
+
+        // Top level.
+        host1.cpuClass = 3;
+        hostMatrix.update(host1);
+        assertEquals(host1, hostMatrix.getMax());
+        assertEquals(host2, hostMatrix.getMin());
+        assertEquals(4, hostMatrix.size());
+
+        assertEquals(List.of(host2, host3, host4, host1), drain());
+    }
+
+    @Test
+    void iterator() {
+        insertAll();
+
+        List<Host> hosts = new ArrayList<>();
+        for (Host host : hostMatrix) {
+            hosts.add(host);
+        }
+
+        assertEquals(4, hosts.size());
+        assertTrue(hosts.containsAll(List.of(host1, host2, host3, host4)));
+        assertEquals(host4, hosts.get(3));
+    }
+
+    @Test
+    void randomOperationsMatchSortedOrder() {
+        Comparator<Host> order = Comparator.<Host>comparingInt(host -> host.cpuClass)
+                .thenComparingInt(host -> host.rack)
+                .thenComparing(Comparator.<Host>comparingInt(host -> host.availableRAM).reversed());
+        List<Host> expected = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            Host host = new Host("Host" + i, i % 5, i * 7 % 4, i * 13 % 97);
+            hostMatrix.insert(host);
+            expected.add(host);
+        }
+        for (int i = 0; i < 200; i += 3) {
+            Host host = expected.get(i);
+            host.cpuClass = (host.cpuClass + i) % 5;
+            host.rack = (host.rack + 1) % 4;
+            hostMatrix.update(host);
+        }
+        for (int i = 1; i < 200; i += 10) {
+            hostMatrix.remove(expected.get(i));
+        }
+        for (int i = 1; i < 200; i += 10) {
+            expected.set(i, null);
+        }
+        expected.removeIf(host -> host == null);
+        expected.sort(order);
+
+        List<Host> actual = drain();
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(0, order.compare(expected.get(i), actual.get(i)));
+        }
+    }
+
+    private List<Host> drain() {
+        List<Host> hosts = new ArrayList<>();
+        while (!hostMatrix.isEmpty()) {
+            hosts.add(hostMatrix.extractMin());
+        }
+        return hosts;
+    }
+}
@@ -0,0 +1,202 @@
+package practice.samples;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import practice.PersistentPriorityMatrix;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PersistentPriorityMatrixTest {
+    private PersistentPriorityMatrix<Resource, Integer> resourceMatrix;
+    private Resource resource1;
+    private Resource resource2;
+    private Resource resource3;
+    private Resource resource4;
+
+    @BeforeEach
+    void setUp() {
+        Comparator<Resource> resourceComparator = Comparator.comparingInt(resource -> resource.availableResourcesRAM);
+        resourceMatrix = new PersistentPriorityMatrix<>(resourceComparator.reversed());
+
+        resource1 = new Resource("Node1", 1, 10);
+        resource2 = new Resource("Node2", 1, 6);
+        resource3 = new Resource("Node3", 2, 10);
+        resource4 = new Resource("Node4", 2, 6);
+    }
+
+    private void insertAll() {
+        resourceMatrix.insert(resource1, 1);
+        resourceMatrix.insert(resource2, 1);
+        resourceMatrix.insert(resource3, 2);
+        resourceMatrix.insert(resource4, 2);
+    }
+
+    @Test
+    void getMinAndGetMax() {
+        assertNull(resourceMatrix.getMin());
+        insertAll();
+
+        assertEquals(resource1, resourceMatrix.getMin());
+        assertEquals(resource3, resourceMatrix.getMax());
+        assertEquals(4, resourceMatrix.size());
+        assertThrows(IllegalArgumentException.class, () -> resourceMatrix.insert(resource1, 2));
+    }
+
+    @Test
+    void extractAndRemove() {
+        insertAll();
+
+        assertEquals(resource1, resourceMatrix.extractMin());
+        assertEquals(resource3, resourceMatrix.extractMax());
+        assertEquals(resource2, resourceMatrix.getMin());
+        assertEquals(resource4, resourceMatrix.getMax());
+
+        assertTrue(resourceMatrix.remove(resource2));
+        assertFalse(resourceMatrix.remove(resource2));
+        assertEquals(resource4, resourceMatrix.getMin());
+
+        assertEquals(resource4, resourceMatrix.extractMin());
+        assertNull(resourceMatrix.extractMin());
+        assertTrue(resourceMatrix.isEmpty());
+    }
+
+    @Test
+    void updatePriority() {
+        insertAll();
+
+        resourceMatrix.updatePriority(resource1, 3);
+        assertEquals(resource2, resourceMatrix.getMin());
+        assertEquals(resource1, resourceMatrix.getMax());
+
+        resource4.availableResourcesRAM = 10;
+        resourceMatrix.updatePriority(resource4, 1);
+        assertEquals(resource4, resourceMatrix.getMin());
+        assertEquals(4, resourceMatrix.size());
+    }
+
+    @Test
+    void snapshotIsNotAffectedByLaterWrites() {
+        insertAll();
+        PersistentPriorityMatrix.Snapshot<Resource, Integer> before = resourceMatrix.snapshot();
+
+        resourceMatrix.extractMin();
+        resourceMatrix.updatePriority(resource4, 0);
+        resourceMatrix.remove(resource3);
+
+        assertEquals(resource1, before.getMin());
+        assertEquals(resource3, before.getMax());
+        assertEquals(4, before.size());
+        List<Resource> resources = new ArrayList<>();
+        for (Resource resource : before) {
+            resources.add(resource);
+        }
+        assertEquals(List.of(resource1, resource2, resource3, resource4), resources);
+
+        PersistentPriorityMatrix.Snapshot<Resource, Integer> after = resourceMatrix.snapshot();
+        assertEquals(before.getVersion() + 3, after.getVersion());
+        assertEquals(resource4, after.getMin());
+        assertEquals(resource2, after.getMax());
+        assertEquals(2, after.size());
+    }
+
+    @Test
+    void insertAndUpdateRejectNulls() {
+        resourceMatrix.insert(resource1, 1);
+        long version = resourceMatrix.snapshot().getVersion();
+
+        assertThrows(NullPointerException.class, () -> resourceMatrix.insert(null, 1));
+        assertThrows(NullPointerException.class, () -> resourceMatrix.insert(resource2, null));
+        assertThrows(NullPointerException.class, () -> resourceMatrix.updatePriority(null, 1));
+        assertThrows(NullPointerException.class, () -> resourceMatrix.updatePriority(resource1, null));
+
+        assertEquals(version, resourceMatrix.snapshot().getVersion());
+        assertEquals(1, resourceMatrix.size());
+        assertEquals(resource1, resourceMatrix.getMin());
+        resourceMatrix.insert(resource2, 1);
+        assertEquals(2, resourceMatrix.size());
+    }
+
+    @Test
+    void failedWriteLeavesMatrixUnchanged() {
+        AtomicBoolean failing = new AtomicBoolean(false);
+        Comparator<Resource> resourceComparator = (a, b) -> {
+            if (failing.get()) {
+                throw new IllegalStateException("Comparator failed");
+            }
+            return Integer.compare(b.availableResourcesRAM, a.availableResourcesRAM);
+        };
+        PersistentPriorityMatrix<Resource, Integer> matrix = new PersistentPriorityMatrix<>(resourceComparator);
+        matrix.insert(resource1, 1);
+        matrix.insert(resource3, 2);
+        PersistentPriorityMatrix.Snapshot<Resource, Integer> before = matrix.snapshot();
+
+        failing.set(true);
+        assertThrows(IllegalStateException.class, () -> matrix.insert(resource2, 1));
+        assertThrows(IllegalStateException.class, () -> matrix.updatePriority(resource1, 2));
+        failing.set(false);
+
+        assertSame(before, matrix.snapshot());
+        assertEquals(resource1, matrix.getMin());
+        assertEquals(resource3, matrix.getMax());
+        assertFalse(matrix.remove(resource2));
+
+        matrix.insert(resource2, 1);
+        matrix.updatePriority(resource1, 2);
+        assertEquals(resource2, matrix.getMin());
+        assertEquals(3, matrix.snapshot().size());
+    }
+
+    @Test
+    void readersSeeConsistentSnapshotsWhileWriting() throws InterruptedException {
+        PersistentPriorityMatrix<Integer, Integer> matrix = new PersistentPriorityMatrix<>(Comparator.<Integer>naturalOrder());
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicReference<String> failure = new AtomicReference<>();
+
+        List<Thread> readers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Thread reader = new Thread(() -> {
+                while (writing.get()) {
+                    PersistentPriorityMatrix.Snapshot<Integer, Integer> snapshot = matrix.snapshot();
+                    int count = 0;
+                    Integer min = null;
+                    for (Integer element : snapshot) {
+                        if (count == 0 || element % 10 < min % 10 || (element % 10 == min % 10 && element < min)) {
+                            min = element;
+                        }
+                        count++;
+                    }
+                    if (count != snapshot.size() || (count > 0 && !min.equals(snapshot.getMin()))) {
+                        failure.set("Inconsistent snapshot " + snapshot.getVersion());
+                    }
+                }
+            });
+            readers.add(reader);
+            reader.start();
+        }
+
+        // Elements are stored with priority element % 10.
+        Random random = new Random(11);
+        for (int i = 0; i < 20_000; i++) {
+            int element = random.nextInt(500);
+            if (!matrix.remove(element)) {
+                matrix.insert(element, element % 10);
+            }
+            if (i % 7 == 0) {
+                matrix.extractMin();
+            }
+        }
+        writing.set(false);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        assertNull(failure.get());
+    }
+}
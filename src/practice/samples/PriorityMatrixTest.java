@@ -4,10 +4,12 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import practice.PriorityMatrix;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -18,11 +20,21 @@ class PriorityMatrixTest {
     private Resource resource3;
     private Resource resource4;
 
+    // A matrix for the time to live tests, driven by a clock the tests set by hand.
+    private long now;
+    private PriorityMatrix<Resource, Integer> leaseMatrix;
+    private List<Resource> expired;
+
     @BeforeEach
     void setUp() {
         Comparator<Resource> resourceComparator = Comparator.comparingInt(resource -> resource.availableResourcesRAM);
         resourceMatrix = new PriorityMatrix<>(resourceComparator.reversed());
 
+        now = 0;
+        leaseMatrix = new PriorityMatrix<>(resourceComparator.reversed(), () -> now);
+        expired = new ArrayList<>();
+        leaseMatrix.setExpiryListener(expired::add);
+
         resource1 = new Resource("Node1", 1, 10);
         resource2 = new Resource("Node2", 1, 6);
         resource3 = new Resource("Node3", 2, 10);
@@ -228,4 +240,247 @@ class PriorityMatrixTest {
         assertTrue(resources.contains(resource3));
         assertTrue(resources.contains(resource4));
     }
+
+    @Test
+    void insertNullElement() {
+        assertThrows(NullPointerException.class, () -> resourceMatrix.insert(null, 1));
+        assertEquals(0, resourceMatrix.size());
+    }
+
+    @Test
+    void peekMin() {
+        resourceMatrix.insert(resource1, 1);
+        resourceMatrix.insert(resource2, 1);
+        resourceMatrix.insert(resource3, 2);
+        resourceMatrix.insert(resource4, 2);
+
+        assertEquals(List.of(), resourceMatrix.peekMin(0));
+        assertEquals(List.of(resource1, resource2, resource3), resourceMatrix.peekMin(3));
+        assertEquals(List.of(resource1, resource2, resource3, resource4), resourceMatrix.peekMin(10));
+
+        // Peeking must not modify the matrix.
+        assertEquals(4, resourceMatrix.size());
+        assertEquals(resource1, resourceMatrix.extractMin());
+        assertEquals(resource2, resourceMatrix.extractMin());
+        assertEquals(resource3, resourceMatrix.extractMin());
+        assertEquals(resource4, resourceMatrix.extractMin());
+    }
+
+    @Test
+    void peekMax() {
+        resourceMatrix.insert(resource1, 1);
+        resourceMatrix.insert(resource2, 1);
+        resourceMatrix.insert(resource3, 2);
+        resourceMatrix.insert(resource4, 2);
+
+        assertEquals(List.of(resource3, resource4, resource1), resourceMatrix.peekMax(3));
+        assertEquals(4, resourceMatrix.size());
+        assertEquals(resource3, resourceMatrix.getMax());
+
+        assertThrows(IllegalArgumentException.class, () -> resourceMatrix.peekMax(-1));
+    }
+
+    @Test
+    void peekMinMatchesExtractMin() {
+        PriorityMatrix<Resource, Integer> matrix = new PriorityMatrix<>(
+                Comparator.comparingInt((Resource resource) -> resource.availableResourcesRAM).reversed());
+        for (int i = 0; i < 100; i++) {
+            matrix.insert(new Resource("Node" + i, i % 3, i * 7 % 101), i % 3);
+        }
+
+        List<Resource> peeked = matrix.peekMin(40);
+        List<Resource> extracted = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            extracted.add(matrix.extractMin());
+        }
+        assertEquals(extracted, peeked);
+    }
+
+    @Test
+    void tickRemovesExpiredElements() {
+        now = 1_000;
+        leaseMatrix.insert(resource1, 1, Duration.ofSeconds(5));
+        leaseMatrix.insert(resource2, 1, Duration.ofSeconds(10));
+        leaseMatrix.insert(resource3, 2);
+
+        now += 4_999;
+        assertEquals(0, leaseMatrix.tick());
+
+        now += 1;
+        assertEquals(1, leaseMatrix.tick());
+        assertEquals(List.of(resource1), expired);
+        assertEquals(2, leaseMatrix.size());
+
+        now += 1_000_000;
+        assertEquals(1, leaseMatrix.tick());
+        assertEquals(List.of(resource1, resource2), expired);
+        assertEquals(resource3, leaseMatrix.getMin());
+    }
+
+    @Test
+    void getMinSkipsExpiredElements() {
+        leaseMatrix.insert(resource1, 1, Duration.ofMillis(100));
+        leaseMatrix.insert(resource2, 1, Duration.ofMillis(200));
+        leaseMatrix.insert(resource3, 2, Duration.ofMillis(100));
+        leaseMatrix.insert(resource4, 2);
+
+        now = 150;
+        // No tick yet, the expired elements are dropped as soon as they would be returned.
+        assertEquals(resource2, leaseMatrix.getMin());
+        assertEquals(resource4, leaseMatrix.extractMax());
+        assertEquals(List.of(resource1, resource3), expired);
+        assertEquals(1, leaseMatrix.size());
+
+        now = 200;
+        assertNull(leaseMatrix.extractMin());
+        assertTrue(leaseMatrix.isEmpty());
+        assertEquals(0, leaseMatrix.tick());
+        assertEquals(List.of(resource1, resource3, resource2), expired);
+    }
+
+    @Test
+    void peekSkipsExpiredElements() {
+        leaseMatrix.insert(resource1, 1, Duration.ofMillis(100));
+        leaseMatrix.insert(resource2, 1, Duration.ofMillis(200));
+        leaseMatrix.insert(resource3, 2, Duration.ofMillis(100));
+        leaseMatrix.insert(resource4, 2);
+        assertEquals(List.of(resource1, resource2), leaseMatrix.peekMin(2));
+
+        now = 100;
+        assertEquals(List.of(resource2, resource4), leaseMatrix.peekMin(2));
+        assertEquals(List.of(resource4, resource2), leaseMatrix.peekMax(5));
+
+        // Peeking does not remove anything, so the listener has not been called yet.
+        assertEquals(List.of(), expired);
+        assertEquals(4, leaseMatrix.size());
+        assertEquals(resource2, leaseMatrix.getMin());
+        assertEquals(List.of(resource1), expired);
+    }
+
+    @Test
+    void touchRenewsTimeToLive() {
+        leaseMatrix.insert(resource1, 1, Duration.ofSeconds(1));
+        leaseMatrix.insert(resource2, 1);
+        assertFalse(leaseMatrix.touch(resource2));
+        assertFalse(leaseMatrix.touch(resource3));
+
+        for (int i = 0; i < 10; i++) {
+            now += 900;
+            assertTrue(leaseMatrix.touch(resource1));
+            assertEquals(0, leaseMatrix.tick());
+        }
+
+        // Updating the priority keeps the time to live.
+        leaseMatrix.updatePriority(resource1, 2);
+        now += 1_000;
+        assertFalse(leaseMatrix.touch(resource1));
+        assertEquals(List.of(resource1), expired);
+
+        // Removed elements never reach the listener.
+        leaseMatrix.insert(resource3, 2, Duration.ofSeconds(1));
+        leaseMatrix.remove(resource3);
+        now += 5_000;
+        assertEquals(0, leaseMatrix.tick());
+        assertEquals(List.of(resource1), expired);
+
+        assertThrows(IllegalArgumentException.class, () -> leaseMatrix.insert(resource4, 2, Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> leaseMatrix.insert(resource4, 2, Duration.ofMillis(-1)));
+        // Shorter than the one millisecond resolution of the clock, which would expire at once.
+        assertThrows(IllegalArgumentException.class, () -> leaseMatrix.insert(resource4, 2, Duration.ofNanos(500)));
+        assertFalse(leaseMatrix.remove(resource4));
+    }
+
+    @Test
+    void tickSkipsLeasesReplacedByEarlierListener() {
+        leaseMatrix.setExpiryListener(element -> {
+            expired.add(element);
+            if (element == resource1) {
+                // Both elements expire in the same tick, but are replaced before their turn comes.
+                leaseMatrix.remove(resource2);
+                leaseMatrix.insert(resource2, 1);
+                leaseMatrix.remove(resource3);
+                leaseMatrix.insert(resource3, 2, Duration.ofSeconds(1));
+            }
+        });
+
+        leaseMatrix.insert(resource1, 1, Duration.ofMillis(50));
+        leaseMatrix.insert(resource2, 1, Duration.ofMillis(100));
+        leaseMatrix.insert(resource3, 2, Duration.ofMillis(100));
+
+        now = 200;
+        assertEquals(1, leaseMatrix.tick());
+        assertEquals(List.of(resource1), expired);
+        assertEquals(List.of(resource2, resource3), leaseMatrix.peekMin(5));
+
+        now += 999;
+        assertEquals(0, leaseMatrix.tick());
+        now += 1;
+        assertEquals(1, leaseMatrix.tick());
+        assertEquals(List.of(resource1, resource3), expired);
+        assertEquals(resource2, leaseMatrix.getMin());
+    }
+
+    @Test
+    void tickExpiresAtExactDeadlineWithinTick() {
+        now = 1_000;
+        leaseMatrix.insert(resource1, 1, Duration.ofMillis(15));
+        leaseMatrix.insert(resource2, 1, Duration.ofMillis(3));
+
+        now += 2;
+        assertEquals(0, leaseMatrix.tick());
+
+        now += 1;
+        assertEquals(1, leaseMatrix.tick());
+        assertEquals(List.of(resource2), expired);
+
+        now += 11;
+        assertEquals(0, leaseMatrix.tick());
+
+        now += 1;
+        assertEquals(1, leaseMatrix.tick());
+        assertEquals(List.of(resource2, resource1), expired);
+    }
+
+    @Test
+    void tickWorksWithNegativeClockValues() {
+        // Monotonic clocks such as System.nanoTime() may start below zero.
+        now = -25;
+        leaseMatrix.insert(resource1, 1, Duration.ofMillis(10));
+        leaseMatrix.insert(resource2, 1, Duration.ofMillis(30));
+
+        now = -16;
+        assertEquals(0, leaseMatrix.tick());
+        now = -15;
+        assertEquals(1, leaseMatrix.tick());
+        now = 4;
+        assertEquals(0, leaseMatrix.tick());
+        now = 5;
+        assertEquals(1, leaseMatrix.tick());
+        assertEquals(List.of(resource1, resource2), expired);
+    }
+
+    @Test
+    void tickExpiresLongAndShortLeasesOnTime() {
+        PriorityMatrix<Integer, Integer> matrix = new PriorityMatrix<>(Comparator.<Integer>naturalOrder(), () -> now);
+        List<Integer> expiredNumbers = new ArrayList<>();
+        matrix.setExpiryListener(expiredNumbers::add);
+
+        // Leases from milliseconds up to several times the span of the wheel.
+        Random random = new Random(7);
+        long[] deadlines = new long[500];
+        for (int i = 0; i < deadlines.length; i++) {
+            long ttl = 1 + (long) Math.pow(10, random.nextDouble() * 9.5);
+            deadlines[i] = ttl;
+            matrix.insert(i, i % 10, Duration.ofMillis(ttl));
+        }
+
+        while (!matrix.isEmpty()) {
+            now += 1 + (long) Math.pow(10, random.nextDouble() * 8);
+            matrix.tick();
+            for (int i = 0; i < deadlines.length; i++) {
+                assertEquals(deadlines[i] <= now, expiredNumbers.contains(i));
+            }
+        }
+        assertEquals(deadlines.length, expiredNumbers.size());
+    }
 }